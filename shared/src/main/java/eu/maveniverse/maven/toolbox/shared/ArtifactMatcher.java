@@ -12,9 +12,11 @@ import static java.util.Objects.requireNonNull;
 import eu.maveniverse.maven.toolbox.shared.internal.SpecParser;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Predicate;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
@@ -24,6 +26,16 @@ import org.eclipse.aether.artifact.DefaultArtifact;
  * {@code "*xxx"} as "ends with".
  */
 public interface ArtifactMatcher extends Predicate<Artifact> {
+    /**
+     * Returns the literal prefixes of {@code groupId:artifactId:} key, such that the key of every artifact matched by
+     * this matcher starts with one of them. Sources may use this to skip parts of their input that cannot contain
+     * matching artifacts, but they still must apply the matcher. Default is a set having empty string only, meaning
+     * "any artifact may match".
+     */
+    default Set<String> keyPrefixes() {
+        return Collections.singleton("");
+    }
+
     static ArtifactMatcher not(ArtifactMatcher matcher) {
         return new ArtifactMatcher() {
             @Override
@@ -48,6 +60,22 @@ public interface ArtifactMatcher extends Predicate<Artifact> {
                 }
                 return true;
             }
+
+            @Override
+            public Set<String> keyPrefixes() {
+                // all must match, so prefixes of any of them hold: pick the most selective ones
+                Set<String> result = Collections.singleton("");
+                int resultLength = 0;
+                for (ArtifactMatcher matcher : matchers) {
+                    Set<String> prefixes = matcher.keyPrefixes();
+                    int length = prefixes.stream().mapToInt(String::length).min().orElse(0);
+                    if (length > resultLength) {
+                        result = prefixes;
+                        resultLength = length;
+                    }
+                }
+                return result;
+            }
         };
     }
 
@@ -66,6 +94,19 @@ public interface ArtifactMatcher extends Predicate<Artifact> {
                 }
                 return false;
             }
+
+            @Override
+            public Set<String> keyPrefixes() {
+                HashSet<String> result = new HashSet<>();
+                for (ArtifactMatcher matcher : matchers) {
+                    Set<String> prefixes = matcher.keyPrefixes();
+                    if (prefixes.contains("")) {
+                        return Collections.singleton("");
+                    }
+                    result.addAll(prefixes);
+                }
+                return result;
+            }
         };
     }
 
@@ -75,11 +116,29 @@ public interface ArtifactMatcher extends Predicate<Artifact> {
 
     static ArtifactMatcher artifact(String coordinate) {
         Artifact prototype = parsePrototype(coordinate);
-        return a -> matches(prototype.getGroupId(), a.getGroupId())
-                && matches(prototype.getArtifactId(), a.getArtifactId())
-                && matches(prototype.getVersion(), a.getVersion())
-                && matches(prototype.getExtension(), a.getExtension())
-                && matches(prototype.getClassifier(), a.getClassifier());
+        return new ArtifactMatcher() {
+            @Override
+            public boolean test(Artifact a) {
+                return matches(prototype.getGroupId(), a.getGroupId())
+                        && matches(prototype.getArtifactId(), a.getArtifactId())
+                        && matches(prototype.getVersion(), a.getVersion())
+                        && matches(prototype.getExtension(), a.getExtension())
+                        && matches(prototype.getClassifier(), a.getClassifier());
+            }
+
+            @Override
+            public Set<String> keyPrefixes() {
+                String prefix = literalPrefix(prototype.getGroupId());
+                if (prefix.equals(prototype.getGroupId())) {
+                    String artifactIdPrefix = literalPrefix(prototype.getArtifactId());
+                    prefix = prefix + ":" + artifactIdPrefix;
+                    if (artifactIdPrefix.equals(prototype.getArtifactId())) {
+                        prefix = prefix + ":";
+                    }
+                }
+                return Collections.singleton(prefix);
+            }
+        };
     }
 
     static ArtifactMatcher any() {
@@ -187,6 +246,20 @@ public interface ArtifactMatcher extends Predicate<Artifact> {
         return "*".equals(str);
     }
 
+    /**
+     * Returns the literal prefix every string matched by pattern starts with: the pattern itself, if it has no
+     * wildcard (see {@link #matches(String, String)}).
+     */
+    static String literalPrefix(String pattern) {
+        if (isAny(pattern) || pattern.startsWith("*")) {
+            return "";
+        } else if (pattern.endsWith("*")) {
+            return pattern.substring(0, pattern.length() - 1);
+        } else {
+            return pattern;
+        }
+    }
+
     static boolean matches(String pattern, String str) {
         if (isAny(pattern)) {
             return true;
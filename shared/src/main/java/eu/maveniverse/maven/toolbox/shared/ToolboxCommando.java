@@ -235,6 +235,15 @@ public interface ToolboxCommando {
      */
     Result<Path> localRepository() throws Exception;
 
+    /**
+     * Evicts the least recently used artifacts from local repository, until its size fits into budget (in bytes).
+     * The artifacts of pinned roots, resolved transitively in given scope, are never evicted. Returns the amount of
+     * reclaimed bytes (or bytes that would be reclaimed, if dry run).
+     */
+    Result<Long> evict(
+            long budget, ResolutionScope resolutionScope, Collection<ResolutionRoot> pinnedRoots, boolean dryRun)
+            throws Exception;
+
     /**
      * Returns the path in local repository of requested artifact. Remote repository is nullable, if present,
      * a "remote artifact" (cached) path will be returned, otherwise "local artifact".
@@ -269,7 +278,8 @@ public interface ToolboxCommando {
             throws Exception;
 
     /**
-     * Returns the tree of root.
+     * Returns the tree of root. The tree is dumped while filtered, and returned result root is a lazy, read-only
+     * filtered view of collected graph.
      */
     Result<CollectResult> tree(
             ResolutionScope resolutionScope,
@@ -279,7 +289,8 @@ public interface ToolboxCommando {
             throws Exception;
 
     /**
-     * Returns the dirty-tree of root. Note: this command is OOM prone, so "level limiting" is applied.
+     * Returns the dirty-tree of root. Note: this command is OOM prone, so "level limiting" is applied. The tree is
+     * dumped while filtered, and returned result root is a lazy, read-only filtered view of collected graph.
      */
     Result<CollectResult> dirtyTree(
             ResolutionScope resolutionScope,
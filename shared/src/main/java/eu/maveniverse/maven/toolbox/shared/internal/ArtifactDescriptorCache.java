@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import eu.maveniverse.maven.toolbox.shared.output.Output;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactDescriptorRequest;
+import org.eclipse.aether.resolution.ArtifactDescriptorResult;
+import org.eclipse.aether.util.ConfigUtils;
+
+/**
+ * Persistent (cross-invocation) cache of artifact descriptors. The cache stores the artifact, its dependencies and
+ * managed dependencies in compact binary form, keyed by artifact GAV, remote repositories used and the properties
+ * and profiles that may affect model building. Each entry records the SHA-1 of every POM file (in local repository)
+ * of model lineage (the POM itself and its parents), and is discarded if any of those changed. Imported BOMs are not
+ * recorded, as a release (only releases are cached) imports released BOMs only.
+ * <p>
+ * Note: cached results carry no relocations, aliases, repositories nor properties. Snapshots, version ranges and
+ * relocated artifacts are never cached. The cache is opt-in, enabled by {@link #CONFIG_PROP_ENABLED} config property.
+ * <p>
+ * Scope: the cache serves descriptors read by toolbox itself, that is roots being loaded and imported BOMs. Dependency
+ * collection (tree, classpath, libYear, resolve) reads descriptors with the resolver's own reader, that is not
+ * pluggable per session, hence it is not served from this cache.
+ */
+public final class ArtifactDescriptorCache {
+    /**
+     * Config property: whether descriptor cache is enabled, default is {@code false}.
+     */
+    public static final String CONFIG_PROP_ENABLED = "toolbox.descriptorCache";
+
+    /**
+     * Config property: the directory where descriptor cache is stored, default is {@code toolbox/descriptors}
+     * directory in Maven user home.
+     */
+    public static final String CONFIG_PROP_DIRECTORY = "toolbox.descriptorCache.directory";
+
+    /**
+     * The system properties that are usually used to activate profiles, hence affect the outcome.
+     */
+    private static final List<String> ACTIVATION_SYSTEM_PROPERTIES =
+            Arrays.asList("java.version", "os.name", "os.arch", "os.version");
+
+    private static final int MAGIC = 0x54424443; // TBDC
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Creates descriptor cache according to session configuration.
+     */
+    public static ArtifactDescriptorCache create(
+            Output output, RepositorySystemSession session, Path defaultDirectory, Collection<String> profiles) {
+        requireNonNull(output, "output");
+        requireNonNull(session, "session");
+        requireNonNull(defaultDirectory, "defaultDirectory");
+        requireNonNull(profiles, "profiles");
+        if (!ConfigUtils.getBoolean(session, false, CONFIG_PROP_ENABLED)) {
+            return new ArtifactDescriptorCache(output, null, "");
+        }
+        String directory = ConfigUtils.getString(session, null, CONFIG_PROP_DIRECTORY);
+        StringBuilder context = new StringBuilder();
+        new TreeMap<>(session.getUserProperties())
+                .forEach((k, v) -> context.append(k).append('=').append(v).append('\n'));
+        for (String key : ACTIVATION_SYSTEM_PROPERTIES) {
+            context.append(key).append('=').append(session.getSystemProperties().get(key)).append('\n');
+        }
+        profiles.forEach(p -> context.append("profile:").append(p).append('\n'));
+        return new ArtifactDescriptorCache(
+                output, directory != null ? Paths.get(directory) : defaultDirectory, context.toString());
+    }
+
+    private final Output output;
+    private final Path directory;
+    private final String context;
+
+    private ArtifactDescriptorCache(Output output, Path directory, String context) {
+        this.output = output;
+        this.directory = directory != null ? directory.toAbsolutePath() : null;
+        this.context = context;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Tells is the artifact descriptor cacheable: cache must be enabled, and artifact must have non-snapshot
+     * simple version.
+     */
+    public boolean isCacheable(Artifact artifact) {
+        String version = artifact.getVersion();
+        return isEnabled()
+                && !artifact.isSnapshot()
+                && version.indexOf('[') < 0
+                && version.indexOf('(') < 0
+                && version.indexOf(',') < 0;
+    }
+
+    /**
+     * Returns cached descriptor or {@code null} if not present, or any contributing POM changed.
+     */
+    public ArtifactDescriptorResult get(ArtifactDescriptorRequest request) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = key(request);
+        Path entry = entry(key);
+        if (!Files.isRegularFile(entry)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !key.equals(readKey(in))) {
+                return null;
+            }
+            int poms = in.readInt();
+            for (int i = 0; i < poms; i++) {
+                Path pom = Paths.get(in.readUTF());
+                String sha1 = in.readUTF();
+                if (!Files.isRegularFile(pom) || !sha1.equals(DigestSupport.sha1(pom))) {
+                    output.chatter("Descriptor cache entry of {} is stale: {} changed", request.getArtifact(), pom);
+                    return null;
+                }
+            }
+            ArtifactDescriptorResult result = new ArtifactDescriptorResult(request);
+            result.setArtifact(readArtifact(in));
+            result.setDependencies(readDependencies(in));
+            result.setManagedDependencies(readDependencies(in));
+            output.chatter("Descriptor cache hit for {}", request.getArtifact());
+            return result;
+        } catch (IOException e) {
+            output.chatter("Could not read descriptor cache entry of {}", request.getArtifact(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the descriptor, along with POMs that contributed to it. Failures are logged, but otherwise ignored.
+     */
+    public void put(ArtifactDescriptorRequest request, ArtifactDescriptorResult result, Collection<Path> poms) {
+        if (!isEnabled()) {
+            return;
+        }
+        String key = key(request);
+        Path entry = entry(key);
+        try {
+            Files.createDirectories(entry.getParent());
+            Path tmp = entry.getParent()
+                    .resolve(entry.getFileName() + "." + ThreadLocalRandom.current().nextInt() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(keyBytes.length);
+                out.write(keyBytes);
+                out.writeInt(poms.size());
+                for (Path pom : poms) {
+                    out.writeUTF(pom.toAbsolutePath().toString());
+                    out.writeUTF(DigestSupport.sha1(pom));
+                }
+                writeArtifact(out, result.getArtifact());
+                writeDependencies(out, result.getDependencies());
+                writeDependencies(out, result.getManagedDependencies());
+            }
+            Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            output.warn("Could not write descriptor cache entry of {}", request.getArtifact(), e);
+        }
+    }
+
+    private String key(ArtifactDescriptorRequest request) {
+        Artifact artifact = request.getArtifact();
+        StringBuilder key = new StringBuilder();
+        key.append(artifact.getGroupId())
+                .append(':')
+                .append(artifact.getArtifactId())
+                .append(':')
+                .append(artifact.getVersion())
+                .append('\n');
+        for (RemoteRepository repository : request.getRepositories()) {
+            key.append(repository.getId()).append("::").append(repository.getUrl()).append('\n');
+        }
+        key.append(context);
+        return key.toString();
+    }
+
+    private Path entry(String key) {
+        String hash = DigestSupport.sha1(key);
+        return directory.resolve(hash.substring(0, 2)).resolve(hash + ".bin");
+    }
+
+    private static String readKey(DataInputStream in) throws IOException {
+        byte[] keyBytes = new byte[in.readInt()];
+        in.readFully(keyBytes);
+        return new String(keyBytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeArtifact(DataOutputStream out, Artifact artifact) throws IOException {
+        out.writeUTF(artifact.getGroupId());
+        out.writeUTF(artifact.getArtifactId());
+        out.writeUTF(artifact.getClassifier());
+        out.writeUTF(artifact.getExtension());
+        out.writeUTF(artifact.getVersion());
+        out.writeInt(artifact.getProperties().size());
+        for (Map.Entry<String, String> property : artifact.getProperties().entrySet()) {
+            out.writeUTF(property.getKey());
+            out.writeUTF(property.getValue());
+        }
+    }
+
+    private static Artifact readArtifact(DataInputStream in) throws IOException {
+        String groupId = in.readUTF();
+        String artifactId = in.readUTF();
+        String classifier = in.readUTF();
+        String extension = in.readUTF();
+        String version = in.readUTF();
+        int count = in.readInt();
+        HashMap<String, String> properties = new HashMap<>(count);
+        for (int i = 0; i < count; i++) {
+            properties.put(in.readUTF(), in.readUTF());
+        }
+        return new DefaultArtifact(groupId, artifactId, classifier, extension, version, properties, (File) null);
+    }
+
+    private static void writeDependencies(DataOutputStream out, List<Dependency> dependencies) throws IOException {
+        out.writeInt(dependencies.size());
+        for (Dependency dependency : dependencies) {
+            writeArtifact(out, dependency.getArtifact());
+            out.writeUTF(dependency.getScope());
+            out.writeByte(dependency.getOptional() == null ? -1 : (dependency.getOptional() ? 1 : 0));
+            out.writeInt(dependency.getExclusions().size());
+            for (Exclusion exclusion : dependency.getExclusions()) {
+                out.writeUTF(exclusion.getGroupId());
+                out.writeUTF(exclusion.getArtifactId());
+                out.writeUTF(exclusion.getClassifier());
+                out.writeUTF(exclusion.getExtension());
+            }
+        }
+    }
+
+    private static List<Dependency> readDependencies(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        ArrayList<Dependency> dependencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Artifact artifact = readArtifact(in);
+            String scope = in.readUTF();
+            byte optional = in.readByte();
+            int exclusionCount = in.readInt();
+            ArrayList<Exclusion> exclusions = new ArrayList<>(exclusionCount);
+            for (int j = 0; j < exclusionCount; j++) {
+                exclusions.add(new Exclusion(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF()));
+            }
+            dependencies.add(new Dependency(
+                    artifact, scope, optional == -1 ? null : optional == 1, exclusions));
+        }
+        return dependencies;
+    }
+}
@@ -7,26 +7,97 @@
  */
 package eu.maveniverse.maven.toolbox.shared.internal;
 
+import static java.util.Objects.requireNonNull;
+
 import eu.maveniverse.maven.toolbox.shared.ArtifactRecorder;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import org.eclipse.aether.AbstractRepositoryListener;
 import org.eclipse.aether.RepositoryEvent;
 import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Recorder of resolved artifacts. Recording does not block: artifacts are deduplicated by their coordinates using
+ * concurrent set, and are kept in concurrent queues per remote repository, in order of recording.
+ * <p>
+ * Optionally, recorder may use a journal file, in which case the recorded artifacts and the start and stop of recording
+ * are appended to it. Recorder having journal file replays it when created, hence recording started by one process
+ * may be continued by later processes and its artifacts copied by yet another process. Appends are performed by
+ * the thread that manages to grab the journal, on behalf of all the threads that recorded meanwhile.
+ */
 public class ArtifactRecorderImpl extends AbstractRepositoryListener implements Artifacts.Source, ArtifactRecorder {
-    private final ConcurrentHashMap<RemoteRepository, List<Artifact>> recordedArtifacts;
+    private static final String HEADER = "# toolbox recorder journal v1";
+
+    private static final String START = "start";
+
+    private static final String STOP = "stop";
+
+    private static final String RECORD = "+ ";
+
+    private static final String SEPARATOR = " >> ";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final ConcurrentHashMap<RemoteRepository, ConcurrentLinkedQueue<Artifact>> recordedArtifacts;
+    private final Set<String> recordedKeys;
+    private final AtomicInteger recordedCount;
     private final AtomicBoolean active;
+    private final Path journal;
+    private final ConcurrentLinkedQueue<String> pendingLines;
+    private final AtomicBoolean appending;
+    private FileChannel journalChannel;
 
     public ArtifactRecorderImpl() {
+        this(null);
+    }
+
+    /**
+     * Creates recorder using given journal file (may be {@code null}), and replays it, if exists.
+     */
+    public ArtifactRecorderImpl(Path journal) {
         this.recordedArtifacts = new ConcurrentHashMap<>();
+        this.recordedKeys = ConcurrentHashMap.newKeySet();
+        this.recordedCount = new AtomicInteger(0);
         this.active = new AtomicBoolean(false);
+        this.journal = journal != null ? journal.toAbsolutePath() : null;
+        this.pendingLines = new ConcurrentLinkedQueue<>();
+        this.appending = new AtomicBoolean(false);
+        if (this.journal != null && Files.isRegularFile(this.journal)) {
+            try {
+                replay();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the journal file, or {@code null} if recorder does not use one.
+     */
+    public Path getJournal() {
+        return journal;
     }
 
     @Override
@@ -35,10 +106,23 @@ public class ArtifactRecorderImpl extends AbstractRepositoryListener implements
             RemoteRepository repository = event.getRepository() instanceof RemoteRepository
                     ? (RemoteRepository) event.getRepository()
                     : SENTINEL;
-            recordedArtifacts
-                    .computeIfAbsent(repository, k -> Collections.synchronizedList(new ArrayList<>()))
-                    .add(event.getArtifact());
+            if (record(repository, event.getArtifact()) && journal != null) {
+                journal(recordLine(repository, event.getArtifact()));
+            }
+        }
+    }
+
+    private boolean record(RemoteRepository repository, Artifact artifact) {
+        if (!recordedKeys.add(ArtifactIdUtils.toId(artifact))) {
+            return false;
         }
+        ConcurrentLinkedQueue<Artifact> artifacts = recordedArtifacts.get(repository);
+        if (artifacts == null) {
+            artifacts = recordedArtifacts.computeIfAbsent(repository, k -> new ConcurrentLinkedQueue<>());
+        }
+        artifacts.add(artifact);
+        recordedCount.incrementAndGet();
+        return true;
     }
 
     @Override
@@ -48,21 +132,141 @@ public class ArtifactRecorderImpl extends AbstractRepositoryListener implements
 
     @Override
     public boolean setActive(boolean val) {
-        return active.compareAndSet(!val, val);
+        boolean result = active.compareAndSet(!val, val);
+        if (result && journal != null) {
+            journal(val ? START : STOP);
+        }
+        return result;
     }
 
     @Override
     public int recordedCount() {
-        return recordedArtifacts.values().stream().mapToInt(Collection::size).sum();
+        return recordedCount.get();
     }
 
     @Override
     public void clear() {
         recordedArtifacts.clear();
+        recordedKeys.clear();
+        recordedCount.set(0);
+        if (journal != null) {
+            pendingLines.clear();
+            try {
+                Files.createDirectories(journal.getParent());
+                Files.write(
+                        journal,
+                        (HEADER + "\n" + (active.get() ? START : STOP) + "\n").getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
+    /**
+     * Returns snapshot of recorded artifacts.
+     */
     @Override
     public Map<RemoteRepository, List<Artifact>> getRecordedArtifacts() {
-        return recordedArtifacts;
+        LinkedHashMap<RemoteRepository, List<Artifact>> result = new LinkedHashMap<>();
+        recordedArtifacts.forEach((k, v) -> result.put(k, new ArrayList<>(v)));
+        return result;
+    }
+
+    @Override
+    public Stream<Artifact> get() {
+        return recordedArtifacts.values().stream().flatMap(Collection::stream);
+    }
+
+    private static String recordLine(RemoteRepository repository, Artifact artifact) {
+        File file = artifact.getFile();
+        return RECORD + ArtifactIdUtils.toId(artifact) + SEPARATOR + (file != null ? file.getAbsolutePath() : "")
+                + SEPARATOR + repository.getId() + SEPARATOR + repository.getUrl();
+    }
+
+    private void replay() throws IOException {
+        List<String> lines = Files.readAllLines(journal, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            return;
+        }
+        if (!HEADER.equals(lines.get(0))) {
+            throw new IOException("Not a recorder journal: " + journal);
+        }
+        ReplayedRepositories repositories = new ReplayedRepositories();
+        for (String line : lines.subList(1, lines.size())) {
+            if (START.equals(line)) {
+                active.set(true);
+            } else if (STOP.equals(line)) {
+                active.set(false);
+            } else if (line.startsWith(RECORD)) {
+                String[] parts = line.substring(RECORD.length()).split(SEPARATOR, -1);
+                if (parts.length != 4) {
+                    logger.warn("Skipping malformed recorder journal line: {}", line);
+                    continue;
+                }
+                Artifact artifact = new DefaultArtifact(parts[0]);
+                if (!parts[1].isEmpty()) {
+                    artifact = artifact.setFile(new File(parts[1]));
+                }
+                record(repositories.get(parts[2], parts[3]), artifact);
+            }
+        }
+    }
+
+    /**
+     * Keeps replayed repositories, mapping the {@link #SENTINEL} back to itself, as it is checked by instance equality.
+     */
+    private static final class ReplayedRepositories {
+        private final LinkedHashMap<String, RemoteRepository> repositories = new LinkedHashMap<>();
+
+        private RemoteRepository get(String id, String url) {
+            if (SENTINEL.getId().equals(id) && SENTINEL.getUrl().equals(url)) {
+                return SENTINEL;
+            }
+            return repositories.computeIfAbsent(
+                    id + SEPARATOR + url, k -> new RemoteRepository.Builder(id, "default", url).build());
+        }
+    }
+
+    /**
+     * Enqueues line and appends all pending lines to journal, unless some other thread is appending already, in which
+     * case that thread will append it.
+     */
+    private void journal(String line) {
+        requireNonNull(line, "line");
+        pendingLines.add(line);
+        while (!pendingLines.isEmpty() && appending.compareAndSet(false, true)) {
+            try {
+                StringBuilder sb = new StringBuilder();
+                String pending;
+                while ((pending = pendingLines.poll()) != null) {
+                    sb.append(pending).append('\n');
+                }
+                if (sb.length() > 0) {
+                    append(sb.toString());
+                }
+            } catch (IOException e) {
+                logger.warn("Could not append to recorder journal {}: {}", journal, e.getMessage());
+            } finally {
+                appending.set(false);
+            }
+        }
+    }
+
+    private void append(String lines) throws IOException {
+        if (journalChannel == null) {
+            boolean fresh = !Files.isRegularFile(journal) || Files.size(journal) == 0;
+            if (fresh) {
+                Files.createDirectories(journal.getParent());
+            }
+            journalChannel = FileChannel.open(
+                    journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (fresh) {
+                lines = HEADER + "\n" + lines;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            journalChannel.write(buffer);
+        }
     }
 }
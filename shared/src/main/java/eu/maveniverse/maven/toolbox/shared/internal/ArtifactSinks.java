@@ -24,7 +24,9 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
@@ -64,6 +66,9 @@ public final class ArtifactSinks {
         public boolean visitEnter(SpecParser.Node node) {
             return super.visitEnter(node)
                     && !"flat".equals(node.getValue())
+                    && !"sync".equals(node.getValue())
+                    && !"cas".equals(node.getValue())
+                    && !"bundle".equals(node.getValue())
                     && !"matching".equals(node.getValue())
                     && !"mapping".equals(node.getValue())
                     && !"unpack".equals(node.getValue());
@@ -92,6 +97,11 @@ public final class ArtifactSinks {
                     params.add(statArtifactSink(0, booleanParam(node.getValue()), tc.output()));
                     break;
                 }
+                case "stats": {
+                    int topN = node.getChildren().isEmpty() ? 10 : intParam(node.getValue());
+                    params.add(statsArtifactSink(0, topN, tc.output()));
+                    break;
+                }
                 case "tee": {
                     params.add(teeArtifactSink(typedParams(Artifacts.Sink.class, node.getValue())));
                     break;
@@ -100,11 +110,31 @@ public final class ArtifactSinks {
                     params.add(nonClosingArtifactSink(typedParam(Artifacts.Sink.class, node.getValue())));
                     break;
                 }
-                case "flat": {
+                case "flat":
+                case "sync":
+                case "cas": {
                     try {
                         ArtifactNameMapper p1;
                         Path p0;
-                        if (node.getChildren().size() == 2) {
+                        int p2 = 1;
+                        IndexFileWriter.Format p3 = null;
+                        if (node.getChildren().size() == 4 && "sync".equals(node.getValue())) {
+                            ArtifactNameMapper.ArtifactNameMapperBuilder mapperBuilder =
+                                    new ArtifactNameMapper.ArtifactNameMapperBuilder(properties);
+                            node.getChildren().get(1).accept(mapperBuilder);
+                            p1 = mapperBuilder.build();
+                            p0 = tc.basedir().resolve(node.getChildren().get(0).getValue());
+                            p2 = Integer.parseInt(node.getChildren().get(2).getValue());
+                            p3 = IndexFileWriter.Format.valueOf(
+                                    node.getChildren().get(3).getValue().toUpperCase(Locale.ENGLISH));
+                        } else if (node.getChildren().size() == 3) {
+                            ArtifactNameMapper.ArtifactNameMapperBuilder mapperBuilder =
+                                    new ArtifactNameMapper.ArtifactNameMapperBuilder(properties);
+                            node.getChildren().get(1).accept(mapperBuilder);
+                            p1 = mapperBuilder.build();
+                            p0 = tc.basedir().resolve(node.getChildren().get(0).getValue());
+                            p2 = Integer.parseInt(node.getChildren().get(2).getValue());
+                        } else if (node.getChildren().size() == 2) {
                             ArtifactNameMapper.ArtifactNameMapperBuilder mapperBuilder =
                                     new ArtifactNameMapper.ArtifactNameMapperBuilder(properties);
                             node.getChildren().get(1).accept(mapperBuilder);
@@ -114,9 +144,40 @@ public final class ArtifactSinks {
                             p1 = ArtifactNameMapper.AbVCE();
                             p0 = tc.basedir().resolve(node.getChildren().get(0).getValue());
                         } else {
-                            throw new IllegalArgumentException("op flat accepts only 1..2 argument");
+                            throw new IllegalArgumentException("op " + node.getValue() + " accepts only "
+                                    + ("sync".equals(node.getValue()) ? "1..4" : "1..3") + " argument");
+                        }
+                        if ("sync".equals(node.getValue())) {
+                            params.add(DirectorySink.sync(tc.output(), p0, p1, p2, p3, dryRun));
+                        } else if ("cas".equals(node.getValue())) {
+                            ContentAddressedStore store = ContentAddressedStore.create(
+                                    tc.output(), tc.session(), tc.mavenUserHome().resolve("toolbox").resolve("cas"));
+                            params.add(DirectorySink.cas(tc.output(), p0, store, p1, p2, dryRun));
+                        } else {
+                            params.add(DirectorySink.flat(tc.output(), p0, p1, p2, dryRun));
+                        }
+                        node.getChildren().clear();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    break;
+                }
+                case "bundle": {
+                    try {
+                        ArtifactNameMapper p2;
+                        if (node.getChildren().size() == 3) {
+                            ArtifactNameMapper.ArtifactNameMapperBuilder mapperBuilder =
+                                    new ArtifactNameMapper.ArtifactNameMapperBuilder(properties);
+                            node.getChildren().get(2).accept(mapperBuilder);
+                            p2 = mapperBuilder.build();
+                        } else if (node.getChildren().size() == 2) {
+                            p2 = ArtifactNameMapper.AbVCE();
+                        } else {
+                            throw new IllegalArgumentException("op bundle accepts only 2..3 argument");
                         }
-                        params.add(DirectorySink.flat(tc.output(), p0, p1, dryRun));
+                        Path p0 = tc.basedir().resolve(node.getChildren().get(0).getValue());
+                        BundleSink.Format p1 = BundleSink.Format.parse(node.getChildren().get(1).getValue());
+                        params.add(BundleSink.bundle(tc.output(), p0, p1, p2, dryRun));
                         node.getChildren().clear();
                     } catch (IOException e) {
                         throw new UncheckedIOException(e);
@@ -125,8 +186,9 @@ public final class ArtifactSinks {
                 }
                 case "repository": {
                     try {
+                        int p1 = node.getChildren().size() == 2 ? intParam(node.getValue()) : 1;
                         Path p0 = tc.basedir().resolve(stringParam(node.getValue()));
-                        params.add(DirectorySink.repository(tc.output(), p0, dryRun));
+                        params.add(DirectorySink.repository(tc.output(), p0, p1, dryRun));
                     } catch (IOException e) {
                         throw new UncheckedIOException(e);
                     }
@@ -150,12 +212,29 @@ public final class ArtifactSinks {
                     break;
                 }
                 case "deploy": {
-                    params.add(DeployingSink.deploying(
-                            tc.output(),
-                            tc.repositorySystem(),
-                            tc.session(),
-                            tc.parseRemoteRepository(stringParam(node.getValue())),
-                            dryRun));
+                    if (node.getChildren().size() == 1) {
+                        params.add(DeployingSink.deploying(
+                                tc.output(),
+                                tc.repositorySystem(),
+                                tc.session(),
+                                tc.parseRemoteRepository(stringParam(node.getValue())),
+                                dryRun));
+                    } else if (node.getChildren().size() == 2 || node.getChildren().size() == 3) {
+                        Path resumeFile = node.getChildren().size() == 3
+                                ? tc.basedir().resolve(stringParam(node.getValue()))
+                                : null;
+                        int threads = intParam(node.getValue());
+                        params.add(DeployingSink.chunked(
+                                tc.output(),
+                                tc.repositorySystem(),
+                                tc.session(),
+                                tc.parseRemoteRepository(stringParam(node.getValue())),
+                                threads,
+                                resumeFile,
+                                dryRun));
+                    } else {
+                        throw new IllegalArgumentException("op deploy accepts only 1..3 argument");
+                    }
                     break;
                 }
                 case "purge": {
@@ -169,23 +248,55 @@ public final class ArtifactSinks {
                             dryRun));
                     break;
                 }
+                case "evict": {
+                    int threads = 4;
+                    if (node.getChildren().size() == 2) {
+                        threads = intParam(node.getValue());
+                    } else if (node.getChildren().size() != 1) {
+                        throw new IllegalArgumentException("op evict accepts only 1..2 argument");
+                    }
+                    params.add(EvictingSink.evicting(
+                            tc.output(),
+                            tc.session().getLocalRepository().getBasedir().toPath(),
+                            EvictingSink.parseSize(stringParam(node.getValue())),
+                            a -> false,
+                            threads,
+                            dryRun));
+                    break;
+                }
                 case "unpack": {
                     try {
-                        if (node.getChildren().size() == 1) {
-                            Path p0 = tc.basedir()
-                                    .resolve(node.getChildren().get(0).getValue());
-                            params.add(UnpackSink.unpack(tc.output(), p0, ArtifactNameMapper.ACVE(), true, dryRun));
-                        } else if (node.getChildren().size() == 2) {
+                        ArrayList<SpecParser.Node> positional = new ArrayList<>();
+                        ArrayList<String> includes = new ArrayList<>();
+                        ArrayList<String> excludes = new ArrayList<>();
+                        for (SpecParser.Node child : node.getChildren()) {
+                            if (child instanceof SpecParser.Op && "includes".equals(child.getValue())) {
+                                child.getChildren().forEach(c -> includes.add(c.getValue()));
+                            } else if (child instanceof SpecParser.Op && "excludes".equals(child.getValue())) {
+                                child.getChildren().forEach(c -> excludes.add(c.getValue()));
+                            } else {
+                                positional.add(child);
+                            }
+                        }
+                        ArtifactNameMapper p1;
+                        Path p0;
+                        int p2 = 1;
+                        if (positional.size() == 1) {
+                            p1 = ArtifactNameMapper.ACVE();
+                        } else if (positional.size() == 2 || positional.size() == 3) {
                             ArtifactNameMapper.ArtifactNameMapperBuilder mapperBuilder =
                                     new ArtifactNameMapper.ArtifactNameMapperBuilder(properties);
-                            node.getChildren().get(1).accept(mapperBuilder);
-                            ArtifactNameMapper p1 = mapperBuilder.build();
-                            Path p0 = tc.basedir()
-                                    .resolve(node.getChildren().get(0).getValue());
-                            params.add(UnpackSink.unpack(tc.output(), p0, p1, true, dryRun));
+                            positional.get(1).accept(mapperBuilder);
+                            p1 = mapperBuilder.build();
+                            if (positional.size() == 3) {
+                                p2 = Integer.parseInt(positional.get(2).getValue());
+                            }
                         } else {
-                            throw new IllegalArgumentException("op unpack accepts only 1..2 argument");
+                            throw new IllegalArgumentException("op unpack accepts only 1..3 argument");
                         }
+                        p0 = tc.basedir().resolve(positional.get(0).getValue());
+                        params.add(UnpackSink.unpack(
+                                tc.output(), p0, p1, true, GlobSupport.filter(includes, excludes), p2, dryRun));
                     } catch (IOException e) {
                         throw new UncheckedIOException(e);
                     }
@@ -492,10 +603,17 @@ public final class ArtifactSinks {
         return new StatArtifactSink(level, moduleDescriptor, output);
     }
 
+    /**
+     * Creates a "stats" artifact sink, that reports breakdowns, size percentiles and largest artifacts.
+     */
+    public static StatsArtifactSink statsArtifactSink(int level, int topN, Output output) {
+        return new StatsArtifactSink(level, topN, output);
+    }
+
     public static class StatArtifactSink implements Artifacts.Sink {
         private final int level;
         private final Output output;
-        private final CopyOnWriteArrayList<Artifact> seen = new CopyOnWriteArrayList<>();
+        private final ConcurrentLinkedQueue<Artifact> seen = new ConcurrentLinkedQueue<>();
         private final CountingArtifactSink countingArtifactSink = new CountingArtifactSink();
         private final SizingArtifactSink sizingArtifactSink = new SizingArtifactSink();
         private final ModuleDescriptorExtractingSink moduleDescriptorExtractingSink;
@@ -517,7 +635,7 @@ public final class ArtifactSinks {
         }
 
         public List<Artifact> getSeenArtifacts() {
-            return seen;
+            return new ArrayList<>(seen);
         }
 
         @Override
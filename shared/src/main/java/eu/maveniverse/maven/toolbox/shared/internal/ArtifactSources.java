@@ -69,13 +69,15 @@ public final class ArtifactSources {
                     break;
                 }
                 case "sessionLocalRepository": {
-                    params.add(LocalRepositorySource.local(
-                            tc.session().getLocalRepository().getBasedir().toPath()));
+                    int threads = node.getChildren().isEmpty() ? 1 : intParam(node.getValue());
+                    params.add(tc.localRepositorySource(
+                            tc.session().getLocalRepository().getBasedir().toPath(), threads));
                     break;
                 }
                 case "localRepository": {
+                    int threads = node.getChildren().size() == 2 ? intParam(node.getValue()) : 1;
                     Path p0 = tc.basedir().resolve(stringParam(node.getValue()));
-                    params.add(LocalRepositorySource.local(p0));
+                    params.add(tc.localRepositorySource(p0, threads));
                     break;
                 }
                 case "recorder": {
@@ -155,10 +157,23 @@ public final class ArtifactSources {
         }
     }
 
+    /**
+     * Creates source that supplies artifacts of delegate matched by matcher. If matcher is {@link ArtifactMatcher}
+     * and delegate is a local repository, the matcher is also pushed down to it, to not walk subtrees that cannot hold
+     * matching artifacts.
+     */
     public static MatchingArtifactSource matchingArtifactSource(
             Predicate<Artifact> artifactMatcher, Source<Artifact> delegate) {
         requireNonNull(artifactMatcher, "artifactMatcher");
         requireNonNull(delegate, "delegate");
+        if (artifactMatcher instanceof ArtifactMatcher) {
+            ArtifactMatcher matcher = (ArtifactMatcher) artifactMatcher;
+            if (delegate instanceof LocalRepositorySource) {
+                delegate = ((LocalRepositorySource) delegate).pruned(matcher);
+            } else if (delegate instanceof LocalRepositoryInventory) {
+                delegate = ((LocalRepositoryInventory) delegate).pruned(matcher);
+            }
+        }
         return new MatchingArtifactSource(artifactMatcher, delegate);
     }
 
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import eu.maveniverse.maven.toolbox.shared.ArtifactMatcher;
+import eu.maveniverse.maven.toolbox.shared.ArtifactNameMapper;
+import eu.maveniverse.maven.toolbox.shared.output.Output;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+
+/**
+ * Construction to accept collection of artifacts and stream them into single archive (ZIP, TAR or TAR.GZ), without
+ * writing them out to disk first. The archive is written to a temporary file, and is moved to its place once sink
+ * is closed, unless the sink failed. As last entry, archive contains {@code .index} manifest, in same format as
+ * {@link DirectorySink} index file.
+ */
+public final class BundleSink implements Artifacts.Sink {
+    /**
+     * Creates bundle sink, that accepts all artifacts and puts them into archive having names according to supplied
+     * {@link ArtifactNameMapper} and prevents overwrite (what you usually want).
+     */
+    public static BundleSink bundle(
+            Output output, Path path, Format format, ArtifactNameMapper artifactNameMapper, boolean dryRun)
+            throws IOException {
+        return new BundleSink(output, path, format, ArtifactMatcher.unique(), artifactNameMapper, dryRun);
+    }
+
+    /**
+     * Archive format.
+     */
+    public enum Format {
+        ZIP,
+        TAR,
+        TAR_GZ;
+
+        /**
+         * Parses format out of string like {@code zip}, {@code tar}, {@code tar.gz} or {@code tgz}.
+         */
+        public static Format parse(String format) {
+            requireNonNull(format, "format");
+            switch (format.toLowerCase(Locale.ENGLISH)) {
+                case "zip":
+                    return ZIP;
+                case "tar":
+                    return TAR;
+                case "tar.gz":
+                case "tgz":
+                    return TAR_GZ;
+                default:
+                    throw new IllegalArgumentException("unknown bundle format: " + format);
+            }
+        }
+    }
+
+    /**
+     * The extensions of files that are already compressed, hence are stored in ZIP as is.
+     */
+    private static final List<String> COMPRESSED_EXTENSIONS =
+            Arrays.asList("jar", "war", "ear", "rar", "aar", "zip", "gz", "tgz", "bz2", "xz", "7z", "png", "jpg");
+
+    private final Output output;
+    private final Path archive;
+    private final Format format;
+    private final Predicate<Artifact> artifactMatcher;
+    private final Function<Artifact, String> artifactNameMapper;
+    private final boolean dryRun;
+    private final HashSet<String> writtenNames;
+    private final StringBuilder index;
+    private final Path tmp;
+    private final ArchiveOutputStream<?> archiveOutputStream;
+    private boolean failed;
+    private boolean closed;
+
+    private BundleSink(
+            Output output,
+            Path archive,
+            Format format,
+            Predicate<Artifact> artifactMatcher,
+            Function<Artifact, String> artifactNameMapper,
+            boolean dryRun)
+            throws IOException {
+        this.output = requireNonNull(output, "output");
+        this.archive = requireNonNull(archive, "archive").toAbsolutePath();
+        this.format = requireNonNull(format, "format");
+        if (Files.isDirectory(this.archive)) {
+            throw new IllegalArgumentException("archive must not be a directory");
+        }
+        this.artifactMatcher = requireNonNull(artifactMatcher, "artifactMatcher");
+        this.artifactNameMapper = requireNonNull(artifactNameMapper, "artifactNameMapper");
+        this.dryRun = dryRun;
+        this.writtenNames = new HashSet<>();
+        this.index = new StringBuilder();
+        if (dryRun) {
+            this.tmp = null;
+            this.archiveOutputStream = null;
+        } else {
+            Files.createDirectories(this.archive.getParent());
+            this.tmp = this.archive
+                    .getParent()
+                    .resolve(this.archive.getFileName() + "." + ThreadLocalRandom.current().nextInt() + ".tmp");
+            OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tmp));
+            switch (format) {
+                case ZIP:
+                    this.archiveOutputStream = new ZipArchiveOutputStream(outputStream);
+                    break;
+                case TAR:
+                    this.archiveOutputStream = tar(outputStream);
+                    break;
+                case TAR_GZ:
+                    this.archiveOutputStream = tar(new GzipCompressorOutputStream(outputStream));
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown format");
+            }
+        }
+    }
+
+    private static TarArchiveOutputStream tar(OutputStream outputStream) {
+        TarArchiveOutputStream tar = new TarArchiveOutputStream(outputStream, StandardCharsets.UTF_8.name());
+        tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+        tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+        return tar;
+    }
+
+    public Path getArchive() {
+        return archive;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    @Override
+    public void accept(Artifact artifact) throws IOException {
+        requireNonNull(artifact, "artifact");
+        if (closed) {
+            throw new IllegalStateException("already closed");
+        }
+        if (artifactMatcher.test(artifact)) {
+            String name = artifactNameMapper.apply(artifact).replace('\\', '/');
+            if (name.startsWith("/") || Arrays.asList(name.split("/", -1)).contains("..")) {
+                throw new IOException("Path escape prevented; check mappings");
+            }
+            if (!writtenNames.add(name)) {
+                throw new IOException("Overwrite prevented; check mappings");
+            }
+            output.chatter("Accepting artifact {} -> {}!{}", artifact, archive, name);
+            index.append(ArtifactIdUtils.toId(artifact)).append(" >> ").append(name).append('\n');
+            if (!dryRun) {
+                Path file = artifact.getFile().toPath();
+                switch (format) {
+                    case ZIP:
+                        putZipEntry(name, file);
+                        break;
+                    case TAR:
+                    case TAR_GZ:
+                        putTarEntry(name, file);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown format");
+                }
+            }
+        }
+    }
+
+    private void putZipEntry(String name, Path file) throws IOException {
+        ZipArchiveOutputStream zip = (ZipArchiveOutputStream) archiveOutputStream;
+        ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setTime(Files.getLastModifiedTime(file).toMillis());
+        String fileName = file.getFileName().toString();
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ENGLISH);
+        if (COMPRESSED_EXTENSIONS.contains(extension)) {
+            // already compressed: store as is, this requires size and CRC upfront
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(Files.size(file));
+            entry.setCrc(crc32(file));
+        } else {
+            entry.setMethod(ZipEntry.DEFLATED);
+        }
+        zip.putArchiveEntry(entry);
+        Files.copy(file, zip);
+        zip.closeArchiveEntry();
+    }
+
+    private void putTarEntry(String name, Path file) throws IOException {
+        TarArchiveOutputStream tar = (TarArchiveOutputStream) archiveOutputStream;
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(Files.size(file));
+        entry.setModTime(Files.getLastModifiedTime(file));
+        tar.putArchiveEntry(entry);
+        Files.copy(file, tar);
+        tar.closeArchiveEntry();
+    }
+
+    private static long crc32(Path file) throws IOException {
+        CRC32 crc32 = new CRC32();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            byte[] buf = new byte[8192];
+            int read = inputStream.read(buf);
+            while (read != -1) {
+                crc32.update(buf, 0, read);
+                read = inputStream.read(buf);
+            }
+        }
+        return crc32.getValue();
+    }
+
+    private void putIndex() throws IOException {
+        byte[] bytes = index.toString().getBytes(StandardCharsets.UTF_8);
+        if (format == Format.ZIP) {
+            ZipArchiveEntry entry = new ZipArchiveEntry(".index");
+            entry.setTime(System.currentTimeMillis());
+            ((ZipArchiveOutputStream) archiveOutputStream).putArchiveEntry(entry);
+        } else {
+            TarArchiveEntry entry = new TarArchiveEntry(".index");
+            entry.setSize(bytes.length);
+            entry.setModTime(new Date());
+            ((TarArchiveOutputStream) archiveOutputStream).putArchiveEntry(entry);
+        }
+        archiveOutputStream.write(bytes);
+        archiveOutputStream.closeArchiveEntry();
+    }
+
+    @Override
+    public void cleanup(Exception e) {
+        failed = true;
+        if (dryRun) {
+            return;
+        }
+        try {
+            archiveOutputStream.close();
+        } catch (IOException ex) {
+            // ignore
+        }
+        try {
+            Files.deleteIfExists(tmp);
+        } catch (IOException ex) {
+            // ignore
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (dryRun || failed) {
+            return;
+        }
+        try {
+            putIndex();
+            archiveOutputStream.finish();
+            archiveOutputStream.close();
+            Files.move(tmp, archive, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            cleanup(e);
+            throw e;
+        }
+    }
+}
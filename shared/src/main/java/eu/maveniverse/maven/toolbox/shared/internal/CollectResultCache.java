@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import eu.maveniverse.maven.toolbox.shared.output.Output;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.graph.DependencyCycle;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.ConfigUtils;
+
+/**
+ * Session scoped memoization of collect results, so consecutive commands on same root (ie. in REPL) do not collect
+ * the same graph over and over again. The cache is LRU, capped by total count of nodes of cached graphs. Cached
+ * results are handed out as copies with read-only root (see {@link FilteringDependencyNode#readOnly(DependencyNode)}).
+ */
+public final class CollectResultCache {
+    /**
+     * Config property: the maximum count of nodes (sum of all cached graphs) to keep, default is 1 million. Value 0
+     * disables caching.
+     */
+    public static final String CONFIG_PROP_MAX_NODES = "toolbox.collectCache.maxNodes";
+
+    private static final String SESSION_DATA_KEY = CollectResultCache.class.getName();
+
+    /**
+     * Gets or creates session scoped collect result cache.
+     */
+    public static CollectResultCache get(Output output, RepositorySystemSession session) {
+        requireNonNull(output, "output");
+        requireNonNull(session, "session");
+        Object cache = session.getData().get(SESSION_DATA_KEY);
+        if (cache == null) {
+            CollectResultCache candidate = new CollectResultCache(
+                    output, ConfigUtils.getLong(session, 1_000_000L, CONFIG_PROP_MAX_NODES));
+            if (session.getData().set(SESSION_DATA_KEY, null, candidate)) {
+                cache = candidate;
+            } else {
+                cache = session.getData().get(SESSION_DATA_KEY);
+            }
+        }
+        return (CollectResultCache) cache;
+    }
+
+    /**
+     * Drops all cached results of session, if any. To be invoked when artifacts are installed or deployed, as they
+     * may change the outcome of collection.
+     */
+    public static void invalidate(RepositorySystemSession session) {
+        requireNonNull(session, "session");
+        Object cache = session.getData().get(SESSION_DATA_KEY);
+        if (cache != null) {
+            ((CollectResultCache) cache).invalidate();
+        }
+    }
+
+    private static final class Entry {
+        private final CollectResult collectResult;
+        private final long nodes;
+
+        private Entry(CollectResult collectResult, long nodes) {
+            this.collectResult = collectResult;
+            this.nodes = nodes;
+        }
+    }
+
+    private final Output output;
+    private final long maxNodes;
+    private final LinkedHashMap<List<Object>, Entry> entries;
+    private long nodes;
+
+    private CollectResultCache(Output output, long maxNodes) {
+        this.output = output;
+        this.maxNodes = maxNodes;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.nodes = 0;
+    }
+
+    /**
+     * Returns copy of cached result with read-only root, or {@code null}.
+     */
+    public synchronized CollectResult get(List<Object> key) {
+        requireNonNull(key, "key");
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        output.chatter("Collect cache hit for {}", entry.collectResult.getRequest());
+        return readOnlyCopy(entry.collectResult);
+    }
+
+    /**
+     * Stores the result and returns copy of it with read-only root. Graphs bigger than cap are not cached at all,
+     * otherwise least recently used entries are evicted to make room.
+     */
+    public synchronized CollectResult put(List<Object> key, CollectResult collectResult) {
+        requireNonNull(key, "key");
+        requireNonNull(collectResult, "collectResult");
+        long count = countNodes(collectResult.getRoot());
+        if (count <= maxNodes) {
+            Entry previous = entries.put(key, new Entry(collectResult, count));
+            if (previous != null) {
+                nodes -= previous.nodes;
+            }
+            nodes += count;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (nodes > maxNodes && iterator.hasNext()) {
+                Entry eldest = iterator.next();
+                iterator.remove();
+                nodes -= eldest.nodes;
+                output.chatter("Collect cache evicted {}", eldest.collectResult.getRequest());
+            }
+        }
+        return readOnlyCopy(collectResult);
+    }
+
+    /**
+     * Drops all cached results.
+     */
+    public synchronized void invalidate() {
+        entries.clear();
+        nodes = 0;
+    }
+
+    private static CollectResult readOnlyCopy(CollectResult collectResult) {
+        CollectResult result = new CollectResult(collectResult.getRequest());
+        result.setRoot(FilteringDependencyNode.readOnly(collectResult.getRoot()));
+        for (Exception exception : collectResult.getExceptions()) {
+            result.addException(exception);
+        }
+        for (DependencyCycle cycle : collectResult.getCycles()) {
+            result.addCycle(cycle);
+        }
+        return result;
+    }
+
+    private static long countNodes(DependencyNode root) {
+        Set<DependencyNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<DependencyNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            DependencyNode node = pending.pop();
+            if (seen.add(node)) {
+                node.getChildren().forEach(pending::push);
+            }
+        }
+        return seen.size();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helpers to run tasks on a bounded pool of workers, while keeping results in submission order.
+ */
+public final class ConcurrentSupport {
+    private ConcurrentSupport() {}
+
+    /**
+     * Creates a bounded executor with daemon threads named with given prefix.
+     */
+    public static ExecutorService executor(int threads, String namePrefix) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be greater than zero");
+        }
+        requireNonNull(namePrefix, "namePrefix");
+        AtomicInteger counter = new AtomicInteger(0);
+        ThreadFactory threadFactory = r -> {
+            Thread thread = new Thread(r, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    /**
+     * Receives task results, may throw.
+     */
+    @FunctionalInterface
+    public interface ResultHandler<T> {
+        void handle(T result) throws Exception;
+    }
+
+    /**
+     * Invokes all tasks using at most {@code threads} workers, and returns their results in same order as tasks were
+     * passed in. If {@code threads} is 1 (or there is only one task) tasks are invoked on calling thread. The first
+     * failure (in task order) is rethrown, remaining tasks are cancelled.
+     */
+    public static <T> List<T> invokeAll(int threads, String namePrefix, List<? extends Callable<T>> tasks)
+            throws Exception {
+        requireNonNull(tasks, "tasks");
+        ArrayList<T> result = new ArrayList<>(tasks.size());
+        invokeAll(threads, namePrefix, tasks, result::add);
+        return result;
+    }
+
+    /**
+     * Invokes all tasks using at most {@code threads} workers, and hands over their results to handler on calling
+     * thread, in same order as tasks were passed in. If {@code threads} is 1 (or there is only one task) tasks are
+     * invoked on calling thread one by one, each followed by handler invocation. The first failure (in task order)
+     * is rethrown, remaining tasks are cancelled.
+     */
+    public static <T> void invokeAll(
+            int threads, String namePrefix, List<? extends Callable<T>> tasks, ResultHandler<T> handler)
+            throws Exception {
+        requireNonNull(tasks, "tasks");
+        requireNonNull(handler, "handler");
+        if (threads <= 1 || tasks.size() <= 1) {
+            for (Callable<T> task : tasks) {
+                handler.handle(task.call());
+            }
+            return;
+        }
+        ExecutorService executor = executor(Math.min(threads, tasks.size()), namePrefix);
+        try {
+            ArrayList<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<T> future : futures) {
+                handler.handle(await(future));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for future, unwrapping {@link ExecutionException} into its cause.
+     */
+    public static <T> T await(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import eu.maveniverse.maven.toolbox.shared.output.Output;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.util.ConfigUtils;
+
+/**
+ * Content addressed store of files, keyed by SHA-1 of their content. Stored files are made read-only, and are
+ * hard-linked into their targets, hence the store should be on same file system as the targets (if not, files are
+ * copied instead). The store is shared across runs; the link count of stored file serves as its reference count: stored
+ * files having no other link than the one in the store are garbage (see {@link #gc()}).
+ */
+public final class ContentAddressedStore {
+    /**
+     * Config property: the directory of store, default is {@code toolbox/cas} directory in Maven user home.
+     */
+    public static final String CONFIG_PROP_DIRECTORY = "toolbox.cas.directory";
+
+    /**
+     * Config property: should sinks using the store collect its garbage when closed, default is {@code false}, as
+     * collecting garbage walks the whole store.
+     */
+    public static final String CONFIG_PROP_GC_ON_CLOSE = "toolbox.cas.gcOnClose";
+
+    /**
+     * Creates store according to session configuration.
+     */
+    public static ContentAddressedStore create(Output output, RepositorySystemSession session, Path defaultDirectory) {
+        requireNonNull(output, "output");
+        requireNonNull(session, "session");
+        requireNonNull(defaultDirectory, "defaultDirectory");
+        String directory = ConfigUtils.getString(session, null, CONFIG_PROP_DIRECTORY);
+        return new ContentAddressedStore(
+                output,
+                directory != null ? Paths.get(directory) : defaultDirectory,
+                ConfigUtils.getBoolean(session, false, CONFIG_PROP_GC_ON_CLOSE));
+    }
+
+    private final Output output;
+    private final Path directory;
+    private final boolean gcOnClose;
+    private final AtomicBoolean copyWarned;
+
+    public ContentAddressedStore(Output output, Path directory) {
+        this(output, directory, false);
+    }
+
+    public ContentAddressedStore(Output output, Path directory, boolean gcOnClose) {
+        this.output = requireNonNull(output, "output");
+        this.directory = requireNonNull(directory, "directory").toAbsolutePath();
+        this.gcOnClose = gcOnClose;
+        this.copyWarned = new AtomicBoolean(false);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Tells whether sinks using this store should invoke {@link #gc()} when closed.
+     */
+    public boolean isGcOnClose() {
+        return gcOnClose;
+    }
+
+    /**
+     * Stores the content of source file, if not already stored, and returns the stored file.
+     */
+    public Path store(Path source) throws IOException {
+        requireNonNull(source, "source");
+        String sha1 = DigestSupport.sha1(source);
+        Path stored = directory.resolve(sha1.substring(0, 2)).resolve(sha1);
+        if (!Files.isRegularFile(stored)) {
+            Files.createDirectories(stored.getParent());
+            Path tmp = stored.getParent().resolve(sha1 + "." + ThreadLocalRandom.current().nextInt() + ".tmp");
+            try {
+                Files.copy(source, tmp, StandardCopyOption.COPY_ATTRIBUTES);
+                if (!tmp.toFile().setReadOnly()) {
+                    output.chatter("Could not make {} read-only", tmp);
+                }
+                // publish only if absent, as concurrent store of same content must not replace already linked file
+                Files.createLink(stored, tmp);
+            } catch (FileAlreadyExistsException e) {
+                // stored concurrently
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Stores the content of source file, if not already stored, and creates target as a hard link to stored file. If
+     * target is on other file system than the store, stored file is copied to target instead.
+     */
+    public void link(Path source, Path target) throws IOException {
+        requireNonNull(source, "source");
+        requireNonNull(target, "target");
+        for (int attempt = 1; ; attempt++) {
+            Path stored = store(source);
+            try {
+                Files.createLink(target, stored);
+                return;
+            } catch (NoSuchFileException e) {
+                // stored file may have been garbage collected meanwhile (by other process); store it again
+                if (attempt == 3 || Files.exists(stored)) {
+                    throw e;
+                }
+            } catch (FileSystemException e) {
+                // hard links cannot cross file systems (EXDEV), the reason of which is not exposed by exception type
+                if (e instanceof FileAlreadyExistsException
+                        || Files.getFileStore(stored).equals(Files.getFileStore(target.getParent()))) {
+                    throw e;
+                }
+                if (copyWarned.compareAndSet(false, true)) {
+                    output.warn(
+                            "Content addressed store {} is on other file system than {}, copying files instead of "
+                                    + "linking them; set {} to directory on same file system",
+                            directory,
+                            target.getParent(),
+                            CONFIG_PROP_DIRECTORY);
+                }
+                Files.copy(stored, target, StandardCopyOption.COPY_ATTRIBUTES);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deletes stored files that are not linked to from anywhere, and returns their count. Works only on file systems
+     * supporting "unix" file attribute view, on others it does nothing.
+     */
+    public int gc() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        if (!Files.getFileStore(directory).supportsFileAttributeView("unix")) {
+            output.chatter("Link count not available, not collecting garbage in {}", directory);
+            return 0;
+        }
+        List<Path> storedFiles;
+        try (Stream<Path> stream = Files.walk(directory, 2)) {
+            storedFiles = stream.filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().endsWith(".tmp"))
+                    .collect(Collectors.toList());
+        }
+        int count = 0;
+        long size = 0;
+        for (Path stored : storedFiles) {
+            if ((Integer) Files.getAttribute(stored, "unix:nlink") <= 1) {
+                long storedSize = Files.size(stored);
+                if (Files.deleteIfExists(stored)) {
+                    count++;
+                    size += storedSize;
+                }
+            }
+        }
+        if (count > 0) {
+            output.suggest("Removed {} unreferenced files ({} bytes) from {}", count, size, directory);
+        }
+        return count;
+    }
+}
@@ -7,10 +7,29 @@
  */
 package eu.maveniverse.maven.toolbox.shared.internal;
 
+import static eu.maveniverse.maven.toolbox.shared.internal.ToolboxCommandoImpl.humanReadableByteCountBin;
 import static java.util.Objects.requireNonNull;
 
+import eu.maveniverse.maven.toolbox.shared.ArtifactNameMapper;
 import eu.maveniverse.maven.toolbox.shared.output.Output;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.RequestTrace;
@@ -21,6 +40,12 @@ import org.eclipse.aether.repository.RemoteRepository;
 
 /**
  * Construction to accept collection of artifacts and deploy them into given remote repository.
+ * <p>
+ * In chunked mode, artifacts are grouped into chunks by GAV, each deployed by one deploy request. Chunks of different
+ * GAs are deployed concurrently, while chunks of same GA are deployed one by one, as they update same GA level
+ * metadata. Each GAV is appended to the resume file (if given) as soon as its chunk is deployed, and GAVs already
+ * present in resume file are skipped, hence a failed deploy may be resumed by repeating it with same resume file. Once
+ * a chunk fails, no more chunks are started, but those being deployed are let to finish.
  */
 public final class DeployingSink implements Artifacts.Sink {
     /**
@@ -32,20 +57,43 @@ public final class DeployingSink implements Artifacts.Sink {
             RepositorySystemSession session,
             RemoteRepository repository,
             boolean dryRun) {
-        return new DeployingSink(output, system, session, repository, dryRun);
+        return new DeployingSink(output, system, session, repository, false, 1, null, dryRun);
+    }
+
+    /**
+     * Creates deploying sink that deploys chunks of artifacts concurrently, using at most {@code threads} threads,
+     * and checkpoints completed GAVs into {@code resumeFile}, if not {@code null}.
+     */
+    public static DeployingSink chunked(
+            Output output,
+            RepositorySystem system,
+            RepositorySystemSession session,
+            RemoteRepository repository,
+            int threads,
+            Path resumeFile,
+            boolean dryRun) {
+        return new DeployingSink(output, system, session, repository, true, threads, resumeFile, dryRun);
     }
 
     private final Output output;
     private final RepositorySystem system;
     private final RepositorySystemSession session;
     private final DeployRequest deployRequest;
+    private final boolean chunked;
+    private final int threads;
+    private final Path resumeFile;
     private final boolean dryRun;
+    private final ArtifactNameMapper gavKey;
+    private final ArtifactNameMapper gaKey;
 
     private DeployingSink(
             Output output,
             RepositorySystem system,
             RepositorySystemSession session,
             RemoteRepository repository,
+            boolean chunked,
+            int threads,
+            Path resumeFile,
             boolean dryRun) {
         this.output = requireNonNull(output, "output");
         this.system = requireNonNull(system, "system");
@@ -53,13 +101,29 @@ public final class DeployingSink implements Artifacts.Sink {
         this.deployRequest = new DeployRequest();
         this.deployRequest.setRepository(repository);
         this.deployRequest.setTrace(RequestTrace.newChild(null, this));
+        this.chunked = chunked;
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be greater than zero");
+        }
+        this.threads = threads;
+        this.resumeFile = resumeFile != null ? resumeFile.toAbsolutePath() : null;
         this.dryRun = dryRun;
+        this.gavKey = ArtifactNameMapper.GAVKey();
+        this.gaKey = ArtifactNameMapper.GAKey();
     }
 
     public RemoteRepository getRemoteRepository() {
         return deployRequest.getRepository();
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    public Path getResumeFile() {
+        return resumeFile;
+    }
+
     @Override
     public void accept(Collection<Artifact> artifacts) {
         requireNonNull(artifacts, "artifacts");
@@ -73,10 +137,161 @@ public final class DeployingSink implements Artifacts.Sink {
     }
 
     @Override
-    public void close() throws DeploymentException {
-        output.chatter("Deploying {} artifacts", deployRequest.getArtifacts().size());
-        if (!dryRun) {
-            system.deploy(session, deployRequest);
+    public void close() throws DeploymentException, IOException {
+        try {
+            if (chunked) {
+                deployChunked();
+            } else {
+                output.chatter("Deploying {} artifacts", deployRequest.getArtifacts().size());
+                if (!dryRun) {
+                    system.deploy(session, deployRequest);
+                }
+            }
+        } finally {
+            if (!dryRun) {
+                CollectResultCache.invalidate(session);
+                VersionsCache.invalidate(session);
+            }
+        }
+    }
+
+    private void deployChunked() throws DeploymentException, IOException {
+        HashSet<String> completed = new HashSet<>();
+        if (resumeFile != null && Files.isRegularFile(resumeFile)) {
+            for (String line : Files.readAllLines(resumeFile, StandardCharsets.UTF_8)) {
+                if (!line.trim().isEmpty()) {
+                    completed.add(line.trim());
+                }
+            }
+        }
+        // GA -> GAV -> artifacts
+        LinkedHashMap<String, LinkedHashMap<String, List<Artifact>>> chunksByGa = new LinkedHashMap<>();
+        int chunks = 0;
+        int skipped = 0;
+        for (Artifact artifact : deployRequest.getArtifacts()) {
+            String gav = gavKey.apply(artifact);
+            if (completed.contains(gav)) {
+                skipped++;
+            } else {
+                LinkedHashMap<String, List<Artifact>> gaChunks =
+                        chunksByGa.computeIfAbsent(gaKey.apply(artifact), k -> new LinkedHashMap<>());
+                if (!gaChunks.containsKey(gav)) {
+                    chunks++;
+                }
+                gaChunks.computeIfAbsent(gav, k -> new ArrayList<>()).add(artifact);
+            }
+        }
+        if (skipped > 0) {
+            output.suggest("Skipping {} artifacts already deployed according to {}", skipped, resumeFile);
+        }
+        output.suggest("Deploying {} artifacts in {} chunks", deployRequest.getArtifacts().size() - skipped, chunks);
+        if (dryRun || chunks == 0) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        AtomicBoolean failed = new AtomicBoolean(false);
+        AtomicInteger deployedChunks = new AtomicInteger(0);
+        AtomicLong bytes = new AtomicLong(0);
+        ArrayList<FutureTask<Void>> tasks = new ArrayList<>(chunksByGa.size());
+        ExecutorService executor = threads > 1 ? ConcurrentSupport.executor(threads, "toolbox-deploy") : null;
+        try (BufferedWriter checkpoint = resumeFile != null
+                ? Files.newBufferedWriter(
+                        resumeFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                : null) {
+            for (LinkedHashMap<String, List<Artifact>> gaChunks : chunksByGa.values()) {
+                FutureTask<Void> task = new FutureTask<>(() -> {
+                    for (Map.Entry<String, List<Artifact>> chunk : gaChunks.entrySet()) {
+                        if (failed.get()) {
+                            break;
+                        }
+                        try {
+                            bytes.addAndGet(deployChunk(chunk.getKey(), chunk.getValue(), checkpoint));
+                            deployedChunks.incrementAndGet();
+                        } catch (Exception e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }
+                    return null;
+                });
+                tasks.add(task);
+                if (executor != null) {
+                    executor.execute(task);
+                } else {
+                    task.run();
+                }
+            }
+            // let chunks being deployed finish, even if one failed, as they are not restartable midway
+            Exception failure = null;
+            for (FutureTask<Void> task : tasks) {
+                try {
+                    ConcurrentSupport.await(task);
+                } catch (Exception e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000L);
+            output.tell(
+                    "Deployed {} of {} chunks ({}) in {} ms ({}/s)",
+                    deployedChunks.get(),
+                    chunks,
+                    humanReadableByteCountBin(bytes.get()),
+                    millis,
+                    humanReadableByteCountBin(bytes.get() * 1000L / millis));
+            if (failure != null) {
+                if (resumeFile != null) {
+                    output.warn("Deploy failed; repeat it with same resume file {} to resume", resumeFile);
+                }
+                if (failure instanceof DeploymentException) {
+                    throw (DeploymentException) failure;
+                } else if (failure instanceof IOException) {
+                    throw (IOException) failure;
+                } else if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                } else if (failure instanceof InterruptedException) {
+                    throw new InterruptedIOException("deploy interrupted");
+                }
+                throw new IOException(failure);
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private long deployChunk(String gav, List<Artifact> artifacts, BufferedWriter checkpoint)
+            throws DeploymentException, IOException {
+        long size = 0;
+        for (Artifact artifact : artifacts) {
+            size += artifact.getFile() != null ? Files.size(artifact.getFile().toPath()) : 0;
+        }
+        DeployRequest chunkRequest = new DeployRequest();
+        chunkRequest.setRepository(deployRequest.getRepository());
+        chunkRequest.setTrace(deployRequest.getTrace());
+        chunkRequest.setArtifacts(artifacts);
+        long started = System.nanoTime();
+        system.deploy(session, chunkRequest);
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000L);
+        output.suggest(
+                "Deployed {} ({} artifacts, {}) in {} ms ({}/s)",
+                gav,
+                artifacts.size(),
+                humanReadableByteCountBin(size),
+                millis,
+                humanReadableByteCountBin(size * 1000L / millis));
+        if (checkpoint != null) {
+            synchronized (checkpoint) {
+                checkpoint.write(gav);
+                checkpoint.newLine();
+                checkpoint.flush();
+            }
         }
+        return size;
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import org.eclipse.aether.util.ChecksumUtils;
+
+/**
+ * Helpers to calculate SHA-1 checksums, used by caches and sinks.
+ */
+public final class DigestSupport {
+    private DigestSupport() {}
+
+    /**
+     * Calculates hex encoded SHA-1 of given file.
+     */
+    public static String sha1(Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            MessageDigest sha1md = newSha1();
+            byte[] buf = new byte[8192];
+            int read = inputStream.read(buf);
+            while (read != -1) {
+                sha1md.update(buf, 0, read);
+                read = inputStream.read(buf);
+            }
+            return ChecksumUtils.toHexString(sha1md.digest());
+        }
+    }
+
+    /**
+     * Calculates hex encoded SHA-1 of given string (UTF-8 encoded).
+     */
+    public static String sha1(String string) {
+        return ChecksumUtils.toHexString(newSha1().digest(string.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Creates new SHA-1 message digest.
+     */
+    public static MessageDigest newSha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA1 MessageDigest unavailable", e);
+        }
+    }
+}
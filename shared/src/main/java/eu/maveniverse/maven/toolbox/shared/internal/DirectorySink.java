@@ -13,12 +13,27 @@ import eu.maveniverse.maven.toolbox.shared.ArtifactMatcher;
 import eu.maveniverse.maven.toolbox.shared.ArtifactNameMapper;
 import eu.maveniverse.maven.toolbox.shared.output.Output;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.eclipse.aether.artifact.Artifact;
 
 /**
@@ -31,8 +46,96 @@ public final class DirectorySink implements Artifacts.Sink {
      */
     public static DirectorySink flat(Output output, Path path, ArtifactNameMapper artifactNameMapper, boolean dryRun)
             throws IOException {
+        return flat(output, path, artifactNameMapper, 1, dryRun);
+    }
+
+    /**
+     * Same as {@link #flat(Output, Path, ArtifactNameMapper, boolean)} but writes out the files using at most
+     * {@code threads} workers.
+     */
+    public static DirectorySink flat(
+            Output output, Path path, ArtifactNameMapper artifactNameMapper, int threads, boolean dryRun)
+            throws IOException {
+        return new DirectorySink(
+                output,
+                path,
+                Mode.COPY,
+                ArtifactMatcher.unique(),
+                false,
+                artifactNameMapper,
+                false,
+                null,
+                threads,
+                null,
+                dryRun);
+    }
+
+    /**
+     * Creates incremental "flat" directory sink, that works like {@link #flat(Output, Path, ArtifactNameMapper, int,
+     * boolean)} but uses the existing index file as manifest: it copies only artifacts that are new or whose content
+     * changed, and removes files that are recorded in index but were not accepted in this run. Once closed, it reports
+     * what was added, updated, unchanged and removed.
+     */
+    public static DirectorySink sync(
+            Output output, Path path, ArtifactNameMapper artifactNameMapper, int threads, boolean dryRun)
+            throws IOException {
+        return sync(output, path, artifactNameMapper, threads, null, dryRun);
+    }
+
+    /**
+     * Creates incremental "flat" directory sink, that works like
+     * {@link #sync(Output, Path, ArtifactNameMapper, int, boolean)} but writes index in given format. If format is
+     * {@code null}, the format of existing index is kept.
+     */
+    public static DirectorySink sync(
+            Output output,
+            Path path,
+            ArtifactNameMapper artifactNameMapper,
+            int threads,
+            IndexFileWriter.Format indexFormat,
+            boolean dryRun)
+            throws IOException {
+        return new DirectorySink(
+                output,
+                path,
+                Mode.SYNC,
+                ArtifactMatcher.unique(),
+                false,
+                artifactNameMapper,
+                false,
+                null,
+                threads,
+                indexFormat,
+                dryRun);
+    }
+
+    /**
+     * Creates "content addressed" flat directory sink, that works like
+     * {@link #flat(Output, Path, ArtifactNameMapper, int, boolean)} but instead copying, it puts the files into
+     * given store (once per unique content) and hard-links them into directory. If store asks for it (see
+     * {@link ContentAddressedStore#isGcOnClose()}), on close files not referenced from anywhere are removed from the
+     * store.
+     */
+    public static DirectorySink cas(
+            Output output,
+            Path path,
+            ContentAddressedStore store,
+            ArtifactNameMapper artifactNameMapper,
+            int threads,
+            boolean dryRun)
+            throws IOException {
         return new DirectorySink(
-                output, path, Mode.COPY, ArtifactMatcher.unique(), false, artifactNameMapper, false, dryRun);
+                output,
+                path,
+                Mode.CAS,
+                ArtifactMatcher.unique(),
+                false,
+                artifactNameMapper,
+                false,
+                requireNonNull(store, "store"),
+                threads,
+                null,
+                dryRun);
     }
 
     /**
@@ -44,6 +147,14 @@ public final class DirectorySink implements Artifacts.Sink {
      * created).
      */
     public static DirectorySink repository(Output output, Path path, boolean dryRun) throws IOException {
+        return repository(output, path, 1, dryRun);
+    }
+
+    /**
+     * Same as {@link #repository(Output, Path, boolean)} but writes out the files using at most {@code threads}
+     * workers.
+     */
+    public static DirectorySink repository(Output output, Path path, int threads, boolean dryRun) throws IOException {
         return new DirectorySink(
                 output,
                 path,
@@ -52,6 +163,9 @@ public final class DirectorySink implements Artifacts.Sink {
                 true,
                 ArtifactNameMapper.repositoryDefault(),
                 false,
+                null,
+                threads,
+                null,
                 dryRun);
     }
 
@@ -61,7 +175,44 @@ public final class DirectorySink implements Artifacts.Sink {
     public enum Mode {
         COPY,
         LINK,
-        SYMLINK
+        SYMLINK,
+        /**
+         * Incremental copy, see {@link #sync(Output, Path, ArtifactNameMapper, int, boolean)}.
+         */
+        SYNC,
+        /**
+         * Hard link to content addressed store, see
+         * {@link #cas(Output, Path, ContentAddressedStore, ArtifactNameMapper, int, boolean)}.
+         */
+        CAS
+    }
+
+    /**
+     * The outcome of incremental copy.
+     */
+    public enum Change {
+        ADDED,
+        UPDATED,
+        UNCHANGED,
+        REMOVED
+    }
+
+    private static final class Synced {
+        private final Artifact artifact;
+        private final String name;
+        private final Change change;
+        private final long size;
+        private final long lastModified;
+        private final String sha1;
+
+        private Synced(Artifact artifact, String name, Change change, long size, long lastModified, String sha1) {
+            this.artifact = artifact;
+            this.name = name;
+            this.change = change;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha1 = sha1;
+        }
     }
 
     private final Output output;
@@ -73,21 +224,32 @@ public final class DirectorySink implements Artifacts.Sink {
     private final Function<Artifact, String> artifactNameMapper;
     private final boolean allowOverwrite;
     private final HashSet<Path> writtenPaths;
+    private final HashSet<Path> preservedPaths;
+    private final Map<String, IndexFileReader.Entry> manifest;
+    private final EnumMap<Change, Integer> changes;
     private final Path indexFile;
     private final IndexFileWriter indexFileWriter;
     private final StandardCopyOption[] copyFlags;
+    private final ContentAddressedStore store;
+    private final ExecutorService executor;
+    private final ArrayList<Future<Synced>> writes;
     private final boolean dryRun;
+    private boolean failed;
 
     /**
      * Creates a directory sink.
      *
      * @param output The output.
      * @param directory The directory, if not existing, will be created.
-     * @param mode The accepting mode: copy, link or symlink.
+     * @param mode The accepting mode: copy, link, symlink, sync or cas.
      * @param artifactMatcher The matcher, that decides is this sink accepting artifact or not.
      * @param artifactNameMapper The artifact name mapper, that decides what file name will be of the artifact.
      * @param allowOverwrite Does sink allow overwrites. Tip: you usually do not want to allow, as that means you have
      *                       some mismatch in name mapping or alike.
+     * @param store The content addressed store, required in CAS mode.
+     * @param threads The count of workers writing out files, if 1, files are written out on calling thread. Checks
+     *                and index are always done on calling thread, in order of acceptance.
+     * @param indexFormat The format of index to write, if {@code null}, the format of existing index is kept.
      * @throws IOException In case of IO problem.
      */
     private DirectorySink(
@@ -98,11 +260,20 @@ public final class DirectorySink implements Artifacts.Sink {
             boolean failIfUnmatched,
             Function<Artifact, String> artifactNameMapper,
             boolean allowOverwrite,
+            ContentAddressedStore store,
+            int threads,
+            IndexFileWriter.Format indexFormat,
             boolean dryRun)
             throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be greater than zero");
+        }
         this.output = requireNonNull(output, "output");
         this.directory = requireNonNull(directory, "directory").toAbsolutePath();
         this.mode = requireNonNull(mode, "mode");
+        if (mode == Mode.CAS && store == null) {
+            throw new IllegalArgumentException("CAS mode requires store");
+        }
         if (Files.exists(directory) && !Files.isDirectory(directory)) {
             throw new IllegalArgumentException("directory must not exists, or must be a directory");
         }
@@ -118,11 +289,27 @@ public final class DirectorySink implements Artifacts.Sink {
         this.artifactNameMapper = requireNonNull(artifactNameMapper, "artifactNameMapper");
         this.allowOverwrite = allowOverwrite;
         this.writtenPaths = new HashSet<>();
+        this.preservedPaths = new HashSet<>();
         this.indexFile = directory.resolve(".index");
-        this.indexFileWriter = new IndexFileWriter(indexFile, !directoryCreated, dryRun);
+        if (mode == Mode.SYNC && Files.isRegularFile(indexFile)) {
+            try (IndexFileReader indexFileReader = new IndexFileReader(indexFile)) {
+                this.manifest = indexFileReader.entries();
+            }
+        } else {
+            this.manifest = Collections.emptyMap();
+        }
+        this.changes = new EnumMap<>(Change.class);
+        // sync rewrites whole index, others append to it
+        boolean append = mode != Mode.SYNC && !directoryCreated;
+        this.indexFileWriter = indexFormat != null
+                ? new IndexFileWriter(indexFile, indexFormat, append, dryRun)
+                : new IndexFileWriter(indexFile, append, dryRun);
         this.copyFlags = allowOverwrite
                 ? new StandardCopyOption[] {StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES}
                 : new StandardCopyOption[] {StandardCopyOption.COPY_ATTRIBUTES};
+        this.store = store;
+        this.executor = threads > 1 && !dryRun ? ConcurrentSupport.executor(threads, "toolbox-sink") : null;
+        this.writes = new ArrayList<>();
         this.dryRun = dryRun;
     }
 
@@ -134,6 +321,13 @@ public final class DirectorySink implements Artifacts.Sink {
         return indexFile;
     }
 
+    /**
+     * Returns the counts of changes done by incremental sink, available after it is closed.
+     */
+    public Map<Change, Integer> getChanges() {
+        return Collections.unmodifiableMap(changes);
+    }
+
     @Override
     public void accept(Artifact artifact) throws IOException {
         requireNonNull(artifact, "artifact");
@@ -147,26 +341,26 @@ public final class DirectorySink implements Artifacts.Sink {
                 throw new IOException("Overwrite prevented; check mappings");
             }
             output.chatter("Accepting artifact {} -> ", artifact, target);
-            indexFileWriter.write(artifact, name);
             Files.createDirectories(target.getParent());
-            switch (mode) {
-                case COPY:
-                    if (!dryRun) {
-                        Files.copy(artifact.getFile().toPath(), target, copyFlags);
-                    }
-                    break;
-                case LINK:
-                    if (!dryRun) {
-                        Files.createLink(target, artifact.getFile().toPath());
+            Path source = artifact.getFile().toPath();
+            if (mode == Mode.SYNC) {
+                IndexFileReader.Entry previous = manifest.get(name);
+                if (Files.exists(target)) {
+                    if (previous == null && !allowOverwrite) {
+                        throw new IOException("Overwrite prevented; target not in index");
                     }
-                    break;
-                case SYMLINK:
-                    if (!dryRun) {
-                        Files.createSymbolicLink(target, artifact.getFile().toPath());
-                    }
-                    break;
-                default:
-                    throw new IllegalArgumentException("unknown mode");
+                    preservedPaths.add(target);
+                }
+                // index is written on close, in order of acceptance
+                submit(() -> sync(artifact, name, source, target, previous));
+            } else {
+                indexFileWriter.write(artifact, name);
+                if (!dryRun) {
+                    submit(() -> {
+                        write(source, target);
+                        return null;
+                    });
+                }
             }
         } else {
             if (failIfUnmatched) {
@@ -175,13 +369,200 @@ public final class DirectorySink implements Artifacts.Sink {
         }
     }
 
+    /**
+     * Runs the write on worker pool, if present, otherwise runs it on calling thread and rethrows its failure.
+     */
+    private void submit(Callable<Synced> task) throws IOException {
+        FutureTask<Synced> write = new FutureTask<>(task);
+        writes.add(write);
+        if (executor != null) {
+            executor.execute(write);
+        } else {
+            write.run();
+            try {
+                ConcurrentSupport.await(write);
+            } catch (Exception e) {
+                throw toIOException(e);
+            }
+        }
+    }
+
+    private Synced sync(Artifact artifact, String name, Path source, Path target, IndexFileReader.Entry previous)
+            throws IOException {
+        // source and target are stat'ed once each
+        BasicFileAttributes sourceAttributes = Files.readAttributes(source, BasicFileAttributes.class);
+        BasicFileAttributes targetAttributes;
+        try {
+            targetAttributes = Files.readAttributes(target, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            targetAttributes = null;
+        }
+        long size = sourceAttributes.size();
+        String sha1 = null;
+        if (previous != null
+                && previous.getSize() == size
+                && targetAttributes != null
+                && targetAttributes.isRegularFile()
+                && targetAttributes.size() == size
+                && targetAttributes.lastModifiedTime().toMillis() == previous.getLastModified()) {
+            // target is intact; source is same if has same timestamp or same content
+            if (sourceAttributes.lastModifiedTime().toMillis() != previous.getLastModified()) {
+                sha1 = DigestSupport.sha1(source);
+            }
+            if (sha1 == null || sha1.equals(previous.getSha1())) {
+                return new Synced(
+                        artifact, name, Change.UNCHANGED, size, previous.getLastModified(), previous.getSha1());
+            }
+        }
+        Change change = targetAttributes != null ? Change.UPDATED : Change.ADDED;
+        if (dryRun) {
+            return new Synced(artifact, name, change, size, -1, "");
+        }
+        if (sha1 == null) {
+            sha1 = DigestSupport.sha1(source);
+        }
+        Path tmp = target.getParent()
+                .resolve(target.getFileName() + "." + ThreadLocalRandom.current().nextInt() + ".tmp");
+        try {
+            Files.copy(source, tmp, StandardCopyOption.COPY_ATTRIBUTES);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        targetAttributes = Files.readAttributes(target, BasicFileAttributes.class);
+        return new Synced(
+                artifact, name, change, targetAttributes.size(), targetAttributes.lastModifiedTime().toMillis(), sha1);
+    }
+
+    /**
+     * Writes out the index and removes files recorded in previous index but not accepted in this run.
+     */
+    private void finishSync(List<Synced> synced) throws IOException {
+        HashSet<String> names = new HashSet<>();
+        for (Synced entry : synced) {
+            names.add(entry.name);
+            indexFileWriter.write(entry.artifact, entry.name, entry.size, entry.lastModified, entry.sha1);
+            report(entry.change, entry.name);
+        }
+        for (IndexFileReader.Entry entry : manifest.values()) {
+            if (names.contains(entry.getPath())) {
+                continue;
+            }
+            Path target = directory.resolve(entry.getPath()).toAbsolutePath();
+            if (!target.startsWith(directory)) {
+                throw new IOException("Path escape prevented; check index");
+            }
+            if (!dryRun) {
+                Files.deleteIfExists(target);
+                Path parent = target.getParent();
+                while (!parent.equals(directory) && isEmptyDirectory(parent)) {
+                    Files.delete(parent);
+                    parent = parent.getParent();
+                }
+            }
+            report(Change.REMOVED, entry.getPath());
+        }
+        output.tell(
+                "Synced {}: {} added, {} updated, {} unchanged, {} removed",
+                directory,
+                changes.getOrDefault(Change.ADDED, 0),
+                changes.getOrDefault(Change.UPDATED, 0),
+                changes.getOrDefault(Change.UNCHANGED, 0),
+                changes.getOrDefault(Change.REMOVED, 0));
+    }
+
+    private void report(Change change, String name) {
+        changes.merge(change, 1, Integer::sum);
+        if (change == Change.UNCHANGED) {
+            output.chatter("  {} {}", change, name);
+        } else {
+            output.suggest("  {} {}", change, name);
+        }
+    }
+
+    private static boolean isEmptyDirectory(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return false;
+        }
+        try (Stream<Path> entries = Files.list(path)) {
+            return !entries.findAny().isPresent();
+        }
+    }
+
+    private void write(Path source, Path target) throws IOException {
+        switch (mode) {
+            case COPY:
+                Files.copy(source, target, copyFlags);
+                break;
+            case LINK:
+                Files.createLink(target, source);
+                break;
+            case SYMLINK:
+                Files.createSymbolicLink(target, source);
+                break;
+            case CAS:
+                store.link(source, target);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown mode");
+        }
+    }
+
+    /**
+     * Joins all in-flight writes, and throws the first failure (with others suppressed), if any.
+     */
+    private List<Synced> awaitWrites() throws IOException {
+        ArrayList<Synced> result = new ArrayList<>(writes.size());
+        IOException failure = null;
+        for (Future<Synced> write : writes) {
+            try {
+                result.add(ConcurrentSupport.await(write));
+            } catch (Exception e) {
+                IOException ex = toIOException(e);
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        writes.clear();
+        if (failure != null) {
+            throw failure;
+        }
+        return result;
+    }
+
+    private static IOException toIOException(Exception e) {
+        if (e instanceof IOException) {
+            return (IOException) e;
+        } else if (e instanceof InterruptedException) {
+            return new InterruptedIOException("interrupted while waiting for writes");
+        } else {
+            return new IOException(e);
+        }
+    }
+
     @Override
     public void cleanup(Exception e) {
+        failed = true;
         indexFileWriter.fail();
         if (dryRun) {
             return;
         }
-        writtenPaths.forEach(p -> {
+        if (executor != null) {
+            // drop queued writes and wait for running ones, to not have them recreate deleted files
+            executor.shutdownNow();
+            try {
+                while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    output.chatter("Waiting for in-flight writes to finish");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            writes.clear();
+        }
+        writtenPaths.stream().filter(p -> !preservedPaths.contains(p)).forEach(p -> {
             try {
                 Files.deleteIfExists(p);
             } catch (IOException ex) {
@@ -190,6 +571,8 @@ public final class DirectorySink implements Artifacts.Sink {
         });
         if (directoryCreated) {
             try {
+                // failed index writer drops its temporary file on close
+                indexFileWriter.close();
                 Files.deleteIfExists(directory);
             } catch (IOException ex) {
                 // ignore
@@ -199,6 +582,30 @@ public final class DirectorySink implements Artifacts.Sink {
 
     @Override
     public void close() throws IOException {
-        indexFileWriter.close();
+        try {
+            try {
+                if (!failed) {
+                    List<Synced> synced = awaitWrites();
+                    if (mode == Mode.SYNC) {
+                        finishSync(synced);
+                    } else if (mode == Mode.CAS && !dryRun && store.isGcOnClose()) {
+                        try {
+                            store.gc();
+                        } catch (IOException e) {
+                            output.warn("Could not collect garbage in {}", store.getDirectory(), e);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                cleanup(e);
+                throw e;
+            } finally {
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
+            }
+        } finally {
+            indexFileWriter.close();
+        }
     }
 }
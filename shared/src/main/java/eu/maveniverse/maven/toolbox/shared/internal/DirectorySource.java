@@ -50,4 +50,9 @@ public final class DirectorySource implements Artifacts.Source {
     public Stream<Artifact> get() throws IOException {
         return indexFileReader.read(directory::resolve);
     }
+
+    @Override
+    public void close() {
+        indexFileReader.close();
+    }
 }
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static eu.maveniverse.maven.toolbox.shared.internal.ToolboxCommandoImpl.humanReadableByteCountBin;
+import static java.util.Objects.requireNonNull;
+
+import eu.maveniverse.maven.toolbox.shared.output.Output;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Construction to accept artifacts of a local repository (usually supplied by {@link LocalRepositorySource}) and
+ * evict the least recently used ones, until the size of accepted artifacts fits into given budget. The unit of
+ * eviction is the directory of artifact (the GAV directory), with all the files in it, and it is considered used
+ * when any of its files was last modified, or any of its files but POMs was last accessed (resolution reads
+ * {@code _remote.repositories} of every artifact it finds locally, builds read JARs). Access times of POMs are not
+ * telling, as {@link LocalRepositorySource} reads them to find artifacts, updating them on every walk. Note: on file
+ * systems mounted with {@code noatime} only the modification times are telling.
+ * <p>
+ * Directories having at least one pinned artifact are never evicted. Directories to evict are deleted in parallel.
+ * In dry-run mode, only the report of what would be evicted and bytes reclaimed is emitted.
+ */
+public final class EvictingSink implements Artifacts.Sink {
+    /**
+     * Creates evicting sink, that evicts from local repository directory down to given budget (in bytes).
+     */
+    public static EvictingSink evicting(
+            Output output,
+            Path localRepository,
+            long budget,
+            Predicate<Artifact> pinned,
+            int threads,
+            boolean dryRun) {
+        return new EvictingSink(output, localRepository, budget, pinned, threads, dryRun);
+    }
+
+    /**
+     * Parses size like {@code 1048576}, {@code 512k}, {@code 500m} or {@code 10g} (units are binary).
+     */
+    public static long parseSize(String size) {
+        requireNonNull(size, "size");
+        String s = size.trim().toLowerCase(Locale.ENGLISH);
+        if (s.endsWith("b")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        long multiplier = 1;
+        if (s.endsWith("k")) {
+            multiplier = 1024L;
+        } else if (s.endsWith("m")) {
+            multiplier = 1024L * 1024L;
+        } else if (s.endsWith("g")) {
+            multiplier = 1024L * 1024L * 1024L;
+        } else if (s.endsWith("t")) {
+            multiplier = 1024L * 1024L * 1024L * 1024L;
+        }
+        if (multiplier > 1) {
+            s = s.substring(0, s.length() - 1);
+        }
+        try {
+            long result = Long.parseLong(s) * multiplier;
+            if (result < 0) {
+                throw new IllegalArgumentException("size must not be negative: " + size);
+            }
+            return result;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid size: " + size, e);
+        }
+    }
+
+    private final Output output;
+    private final Path localRepository;
+    private final long budget;
+    private final Predicate<Artifact> pinned;
+    private final int threads;
+    private final boolean dryRun;
+    private final ConcurrentHashMap<Path, Unit> units;
+    private final AtomicBoolean perform;
+    private final ArrayList<Path> evicted;
+    private long reclaimed;
+
+    private EvictingSink(
+            Output output,
+            Path localRepository,
+            long budget,
+            Predicate<Artifact> pinned,
+            int threads,
+            boolean dryRun) {
+        this.output = requireNonNull(output, "output");
+        this.localRepository = requireNonNull(localRepository, "localRepository").toAbsolutePath();
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget must not be negative");
+        }
+        this.budget = budget;
+        this.pinned = requireNonNull(pinned, "pinned");
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be greater than zero");
+        }
+        this.threads = threads;
+        this.dryRun = dryRun;
+        this.units = new ConcurrentHashMap<>();
+        this.perform = new AtomicBoolean(true);
+        this.evicted = new ArrayList<>();
+        this.reclaimed = -1;
+    }
+
+    public Path getLocalRepository() {
+        return localRepository;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    @Override
+    public void accept(Artifact artifact) {
+        requireNonNull(artifact, "artifact");
+        requireNonNull(artifact.getFile(), "unresolved artifact");
+        Path directory = artifact.getFile().toPath().toAbsolutePath().getParent();
+        if (!directory.startsWith(localRepository) || directory.equals(localRepository)) {
+            throw new IllegalArgumentException("artifact does not originate from local repository to be evicted");
+        }
+        Unit unit = units.computeIfAbsent(directory, Unit::new);
+        if (pinned.test(artifact)) {
+            unit.pinned = true;
+        }
+    }
+
+    @Override
+    public void cleanup(Exception e) {
+        perform.set(false);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (!perform.compareAndSet(true, false)) {
+            return;
+        }
+        ArrayList<Unit> all = new ArrayList<>(units.values());
+        ArrayList<Callable<Unit>> scans = new ArrayList<>(all.size());
+        for (Unit unit : all) {
+            scans.add(() -> unit.scan());
+        }
+        ConcurrentSupport.invokeAll(threads, "toolbox-evict", scans);
+        long total = all.stream().mapToLong(u -> u.size).sum();
+        long pinnedSize = all.stream().filter(u -> u.pinned).mapToLong(u -> u.size).sum();
+        output.suggest(
+                "Local repository {} holds {} in {} directories ({} pinned); budget is {}",
+                localRepository,
+                humanReadableByteCountBin(total),
+                all.size(),
+                humanReadableByteCountBin(pinnedSize),
+                humanReadableByteCountBin(budget));
+
+        ArrayList<Unit> toEvict = new ArrayList<>();
+        long remaining = total;
+        if (remaining > budget) {
+            all.sort(Comparator.comparingLong((Unit u) -> u.lastUsed).thenComparing(u -> u.directory));
+            for (Unit unit : all) {
+                if (remaining <= budget) {
+                    break;
+                }
+                if (!unit.pinned) {
+                    toEvict.add(unit);
+                    remaining -= unit.size;
+                }
+            }
+            if (remaining > budget) {
+                output.warn(
+                        "Budget of {} cannot be met, pinned artifacts alone take {}",
+                        humanReadableByteCountBin(budget),
+                        humanReadableByteCountBin(pinnedSize));
+            }
+        }
+        for (Unit unit : toEvict) {
+            if (dryRun) {
+                output.suggest(
+                        "Would evict {} ({}, last used {})",
+                        localRepository.relativize(unit.directory),
+                        humanReadableByteCountBin(unit.size),
+                        Instant.ofEpochMilli(unit.lastUsed));
+            } else {
+                output.chatter(
+                        "Evicting {} ({}, last used {})",
+                        localRepository.relativize(unit.directory),
+                        humanReadableByteCountBin(unit.size),
+                        Instant.ofEpochMilli(unit.lastUsed));
+            }
+        }
+        if (!dryRun && !toEvict.isEmpty()) {
+            ArrayList<Callable<Unit>> deletes = new ArrayList<>(toEvict.size());
+            for (Unit unit : toEvict) {
+                deletes.add(() -> unit.delete());
+            }
+            ConcurrentSupport.invokeAll(threads, "toolbox-evict", deletes);
+            // pruning is done sequentially, as sibling directories share parents
+            for (Unit unit : toEvict) {
+                pruneEmptyParents(unit.directory);
+            }
+        }
+        long result = 0;
+        for (Unit unit : toEvict) {
+            evicted.add(unit.directory);
+            result += unit.size;
+        }
+        reclaimed = result;
+        output.tell(
+                "{} {} directories, reclaimed {} (local repository is {})",
+                dryRun ? "Would evict" : "Evicted",
+                toEvict.size(),
+                humanReadableByteCountBin(result),
+                humanReadableByteCountBin(total - result));
+    }
+
+    /**
+     * Returns the evicted (or to be evicted, in dry-run mode) directories, in eviction order. Populated once sink is
+     * closed.
+     */
+    public List<Path> getEvicted() {
+        return Collections.unmodifiableList(evicted);
+    }
+
+    /**
+     * Returns the reclaimed (or to be reclaimed, in dry-run mode) bytes, or -1 if sink was not closed, or failed.
+     */
+    public long getReclaimed() {
+        return reclaimed;
+    }
+
+    private void pruneEmptyParents(Path directory) throws IOException {
+        Path current = directory.getParent();
+        while (current != null && current.startsWith(localRepository) && !current.equals(localRepository)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(current)) {
+                if (stream.iterator().hasNext()) {
+                    return;
+                }
+            }
+            Files.delete(current);
+            current = current.getParent();
+        }
+    }
+
+    private static final class Unit {
+        private final Path directory;
+        private volatile boolean pinned;
+        private long size;
+        private long lastUsed;
+
+        private Unit(Path directory) {
+            this.directory = directory;
+        }
+
+        private Unit scan() throws IOException {
+            long size = 0;
+            long lastUsed = 0;
+            if (Files.isDirectory(directory)) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                    for (Path file : stream) {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        if (attributes.isRegularFile()) {
+                            size += attributes.size();
+                            lastUsed = Math.max(lastUsed, attributes.lastModifiedTime().toMillis());
+                            if (!file.getFileName().toString().endsWith(".pom")) {
+                                lastUsed = Math.max(lastUsed, attributes.lastAccessTime().toMillis());
+                            }
+                        }
+                    }
+                }
+            }
+            this.size = size;
+            this.lastUsed = lastUsed;
+            return this;
+        }
+
+        private Unit delete() throws IOException {
+            // files only: subdirectories (as in "g:a" and "g:a.b" layout clash) are left intact
+            boolean empty = true;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path file : stream) {
+                    if (Files.isDirectory(file)) {
+                        empty = false;
+                    } else {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+            if (empty) {
+                Files.deleteIfExists(directory);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.DependencyVisitor;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.version.Version;
+import org.eclipse.aether.version.VersionConstraint;
+
+/**
+ * A lightweight, read-only filtered view of a dependency graph, replacement for copying the graph using
+ * {@link org.eclipse.aether.util.graph.visitor.CloningDependencyVisitor} wrapped in
+ * {@link org.eclipse.aether.util.graph.visitor.FilteringDependencyVisitor}. The semantics are same: the children of
+ * a node in view are its accepted children, and accepted descendants of rejected children (the rejected nodes are
+ * elided). The view does not copy any node data, and children are calculated lazily.
+ * <p>
+ * A "transient" view (see {@link #streaming(DependencyNode, Predicate)}) discards the children of node once its
+ * {@link #accept(DependencyVisitor)} traversal is done, so dumping huge graphs needs memory proportional to the
+ * visited path only.
+ */
+public final class FilteringDependencyNode implements DependencyNode {
+    /**
+     * Creates a filtered view of given root. The root is always present, filter is applied to nodes below it.
+     */
+    public static DependencyNode view(DependencyNode root, Predicate<DependencyNode> filter) {
+        return new FilteringDependencyNode(requireNonNull(root, "root"), requireNonNull(filter, "filter"), false);
+    }
+
+    /**
+     * Creates a read-only view of given root, with all nodes present.
+     */
+    public static DependencyNode readOnly(DependencyNode root) {
+        return view(root, n -> true);
+    }
+
+    /**
+     * Creates a filtered view of given root meant for one-off traversal (like dumping).
+     */
+    public static DependencyNode streaming(DependencyNode root, Predicate<DependencyNode> filter) {
+        return new FilteringDependencyNode(requireNonNull(root, "root"), requireNonNull(filter, "filter"), true);
+    }
+
+    private final DependencyNode delegate;
+    private final Predicate<DependencyNode> filter;
+    private final boolean streaming;
+    private List<DependencyNode> children;
+
+    private FilteringDependencyNode(DependencyNode delegate, Predicate<DependencyNode> filter, boolean streaming) {
+        this.delegate = delegate;
+        this.filter = filter;
+        this.streaming = streaming;
+    }
+
+    @Override
+    public List<DependencyNode> getChildren() {
+        if (children == null) {
+            ArrayList<DependencyNode> result = new ArrayList<>();
+            Set<DependencyNode> path = Collections.newSetFromMap(new IdentityHashMap<>());
+            path.add(delegate);
+            collectChildren(delegate, path, result);
+            children = Collections.unmodifiableList(result);
+        }
+        return children;
+    }
+
+    private void collectChildren(DependencyNode node, Set<DependencyNode> path, List<DependencyNode> result) {
+        for (DependencyNode child : node.getChildren()) {
+            if (filter.test(child)) {
+                result.add(new FilteringDependencyNode(child, filter, streaming));
+            } else if (path.add(child)) {
+                collectChildren(child, path, result);
+                path.remove(child);
+            }
+        }
+    }
+
+    @Override
+    public boolean accept(DependencyVisitor visitor) {
+        if (visitor.visitEnter(this)) {
+            for (DependencyNode child : getChildren()) {
+                if (!child.accept(visitor)) {
+                    break;
+                }
+            }
+            if (streaming) {
+                children = null;
+            }
+        }
+        return visitor.visitLeave(this);
+    }
+
+    @Override
+    public void setChildren(List<DependencyNode> children) {
+        throw new UnsupportedOperationException("filtered view is read-only");
+    }
+
+    @Override
+    public Dependency getDependency() {
+        return delegate.getDependency();
+    }
+
+    @Override
+    public Artifact getArtifact() {
+        return delegate.getArtifact();
+    }
+
+    @Override
+    public void setArtifact(Artifact artifact) {
+        throw new UnsupportedOperationException("filtered view is read-only");
+    }
+
+    @Override
+    public List<? extends Artifact> getRelocations() {
+        return delegate.getRelocations();
+    }
+
+    @Override
+    public Collection<? extends Artifact> getAliases() {
+        return delegate.getAliases();
+    }
+
+    @Override
+    public VersionConstraint getVersionConstraint() {
+        return delegate.getVersionConstraint();
+    }
+
+    @Override
+    public Version getVersion() {
+        return delegate.getVersion();
+    }
+
+    @Override
+    public void setScope(String scope) {
+        throw new UnsupportedOperationException("filtered view is read-only");
+    }
+
+    @Override
+    public void setOptional(Boolean optional) {
+        throw new UnsupportedOperationException("filtered view is read-only");
+    }
+
+    @Override
+    public int getManagedBits() {
+        return delegate.getManagedBits();
+    }
+
+    @Override
+    public List<RemoteRepository> getRepositories() {
+        return delegate.getRepositories();
+    }
+
+    @Override
+    public String getRequestContext() {
+        return delegate.getRequestContext();
+    }
+
+    @Override
+    public void setRequestContext(String context) {
+        throw new UnsupportedOperationException("filtered view is read-only");
+    }
+
+    @Override
+    public Map<?, ?> getData() {
+        return delegate.getData();
+    }
+
+    @Override
+    public void setData(Map<Object, Object> data) {
+        throw new UnsupportedOperationException("filtered view is read-only");
+    }
+
+    @Override
+    public void setData(Object key, Object value) {
+        throw new UnsupportedOperationException("filtered view is read-only");
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Helpers to match {@code /} separated names (like archive entry names) against Ant-like glob patterns:
+ * {@code ?} matches one character, {@code *} matches zero or more characters within a name segment, {@code **}
+ * matches zero or more segments. A pattern ending with {@code /} matches everything below it.
+ */
+public final class GlobSupport {
+    private GlobSupport() {}
+
+    /**
+     * Creates a predicate of names, that accepts names matching any of the includes (or all names, if no includes
+     * given) and not matching any of the excludes.
+     */
+    public static Predicate<String> filter(Collection<String> includes, Collection<String> excludes) {
+        requireNonNull(includes, "includes");
+        requireNonNull(excludes, "excludes");
+        if (includes.isEmpty() && excludes.isEmpty()) {
+            return n -> true;
+        }
+        List<Pattern> includePatterns = toPatterns(includes);
+        List<Pattern> excludePatterns = toPatterns(excludes);
+        return n -> (includePatterns.isEmpty() || matchesAny(includePatterns, n)) && !matchesAny(excludePatterns, n);
+    }
+
+    /**
+     * Compiles the glob into regular expression pattern.
+     */
+    public static Pattern toPattern(String glob) {
+        requireNonNull(glob, "glob");
+        String g = glob.endsWith("/") ? glob + "**" : glob;
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < g.length(); i++) {
+            char ch = g.charAt(i);
+            if (ch == '*') {
+                if (i + 1 < g.length() && g.charAt(i + 1) == '*') {
+                    i++;
+                    if (i + 1 < g.length() && g.charAt(i + 1) == '/') {
+                        i++;
+                        regex.append("(?:.*/)?");
+                    } else {
+                        regex.append(".*");
+                    }
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else if (ch == '?') {
+                regex.append("[^/]");
+            } else {
+                if ("\\.[]{}()<>+-=^$|!".indexOf(ch) >= 0) {
+                    regex.append('\\');
+                }
+                regex.append(ch);
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String name) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Pattern> toPatterns(Collection<String> globs) {
+        ArrayList<Pattern> result = new ArrayList<>(globs.size());
+        for (String glob : globs) {
+            result.add(toPattern(glob));
+        }
+        return result;
+    }
+}
@@ -9,34 +9,280 @@ package eu.maveniverse.maven.toolbox.shared.internal;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.util.ChecksumUtils;
 
 /**
- * Reads "index file", that is a file having GAV per line.
+ * Reads "index file", that is a file having GAV per line, or its binary variant (see {@link IndexFileWriter.Format}),
+ * that is detected by its leading magic bytes. Index is read lazily, entry by entry, while the returned stream is
+ * consumed. The underlying file is closed once stream is exhausted or closed, or this reader is closed.
  */
 public final class IndexFileReader implements AutoCloseable {
+    /**
+     * The magic bytes binary index starts with, followed by format version byte.
+     */
+    static final byte[] BINARY_MAGIC = {0, 'T', 'B', 'I'};
+
+    static final byte BINARY_VERSION = 1;
+
+    /**
+     * Index entry: artifact ID and path, along with size, last modified timestamp and SHA-1 of the file, if recorded
+     * (if not, size and last modified are {@code -1} and SHA-1 is {@code null}).
+     */
+    public static final class Entry {
+        private final String artifactId;
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final String sha1;
+
+        private Entry(String artifactId, String path, long size, long lastModified, String sha1) {
+            this.artifactId = artifactId;
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha1 = sha1;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getSha1() {
+            return sha1;
+        }
+    }
+
     private final Path indexFile;
+    private final Map<Closeable, Boolean> open;
 
     public IndexFileReader(Path indexFile) {
         this.indexFile = requireNonNull(indexFile, "indexFile").toAbsolutePath();
+        this.open = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Tells whether index file is binary.
+     */
+    public boolean isBinary() throws IOException {
+        return isBinary(indexFile);
+    }
+
+    static boolean isBinary(Path indexFile) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return false;
+        }
+        try (InputStream inputStream = Files.newInputStream(indexFile)) {
+            byte[] magic = new byte[BINARY_MAGIC.length];
+            return inputStream.readNBytes(magic, 0, magic.length) == magic.length
+                    && Arrays.equals(magic, BINARY_MAGIC);
+        }
     }
 
     public Stream<Artifact> read(Function<String, Path> pathResolver) throws IOException {
-        return Files.readAllLines(indexFile).stream()
-                .filter(l -> !l.trim().isEmpty() && !l.startsWith("#"))
-                .map(l -> {
-                    String[] parts = l.split(" >> ", -1);
-                    return new DefaultArtifact(parts[0])
-                            .setFile(pathResolver.apply(parts[1]).toFile());
-                });
+        requireNonNull(pathResolver, "pathResolver");
+        return stream().map(e -> new DefaultArtifact(e.getArtifactId())
+                .setFile(pathResolver.apply(e.getPath()).toFile()));
+    }
+
+    /**
+     * Reads index entries lazily, in index order.
+     */
+    public Stream<Entry> stream() throws IOException {
+        EntryIterator iterator = isBinary() ? new BinaryEntries() : new TextEntries();
+        open.put(iterator, Boolean.TRUE);
+        return StreamSupport.stream(iterator, false).onClose(iterator::closeQuietly);
+    }
+
+    /**
+     * Reads index entries keyed by path, in index order. Later entries win, as in case of appended index.
+     */
+    public Map<String, Entry> entries() throws IOException {
+        LinkedHashMap<String, Entry> result = new LinkedHashMap<>();
+        try (Stream<Entry> entries = stream()) {
+            entries.forEach(entry -> {
+                result.remove(entry.getPath());
+                result.put(entry.getPath(), entry);
+            });
+        }
+        return result;
     }
 
     @Override
-    public void close() {}
+    public void close() {
+        for (Closeable closeable : open.keySet()) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Spliterator of entries, closing the file once exhausted.
+     */
+    private abstract class EntryIterator extends Spliterators.AbstractSpliterator<Entry> implements Closeable {
+        private boolean closed;
+
+        private EntryIterator() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                Entry entry = next();
+                if (entry == null) {
+                    close();
+                    return false;
+                }
+                action.accept(entry);
+                return true;
+            } catch (IOException e) {
+                closeQuietly();
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Returns next entry, or {@code null} if no more entries.
+         */
+        protected abstract Entry next() throws IOException;
+
+        protected abstract void doClose() throws IOException;
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                open.remove(this);
+                doClose();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private final class TextEntries extends EntryIterator {
+        private final BufferedReader reader;
+
+        private TextEntries() throws IOException {
+            this.reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected Entry next() throws IOException {
+            String line = reader.readLine();
+            while (line != null && (line.trim().isEmpty() || line.startsWith("#"))) {
+                line = reader.readLine();
+            }
+            if (line == null) {
+                return null;
+            }
+            String[] parts = line.split(" >> ", -1);
+            if (parts.length == 5) {
+                return new Entry(parts[0], parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]), parts[4]);
+            } else {
+                return new Entry(parts[0], parts[1], -1, -1, null);
+            }
+        }
+
+        @Override
+        protected void doClose() throws IOException {
+            reader.close();
+        }
+    }
+
+    private final class BinaryEntries extends EntryIterator {
+        private final DataInputStream input;
+
+        private BinaryEntries() throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)));
+            try {
+                input.readFully(new byte[BINARY_MAGIC.length]);
+                byte version = input.readByte();
+                if (version != BINARY_VERSION) {
+                    throw new IOException("Unsupported binary index version " + version + ": " + indexFile);
+                }
+            } catch (IOException e) {
+                input.close();
+                throw e;
+            }
+        }
+
+        @Override
+        protected Entry next() throws IOException {
+            int tag = input.read();
+            if (tag == -1) {
+                return null;
+            }
+            if (tag != IndexFileWriter.BINARY_ENTRY) {
+                throw new IOException("Corrupt binary index: " + indexFile);
+            }
+            try {
+                String artifactId = input.readUTF();
+                String path = input.readUTF();
+                long size = input.readLong();
+                long lastModified = input.readLong();
+                String sha1 = null;
+                if (input.readBoolean()) {
+                    byte[] digest = new byte[20];
+                    input.readFully(digest);
+                    sha1 = ChecksumUtils.toHexString(digest);
+                }
+                return new Entry(artifactId, path, size, lastModified, sha1);
+            } catch (EOFException e) {
+                throw new IOException("Truncated binary index: " + indexFile, e);
+            }
+        }
+
+        @Override
+        protected void doClose() throws IOException {
+            input.close();
+        }
+    }
 }
@@ -9,46 +9,90 @@ package eu.maveniverse.maven.toolbox.shared.internal;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.util.ChecksumUtils;
 import org.eclipse.aether.util.artifact.ArtifactIdUtils;
 
 /**
- * Writes "index file", that is a file having GAV per line.
+ * Writes "index file", that is a file having GAV per line, or its binary variant.
  */
 public final class IndexFileWriter implements AutoCloseable {
+    /**
+     * The index file format.
+     */
+    public enum Format {
+        /**
+         * Human-readable, a line per entry.
+         */
+        TEXT,
+        /**
+         * Compact, having artifact ID, path, size, last modified and raw SHA-1 per entry. Faster to read and write, and
+         * is meant for big directories that are synced, as it allows to verify the directory without hashing files.
+         */
+        BINARY;
+
+        /**
+         * Returns the format of existing index file, or {@link #TEXT} if file does not exist.
+         */
+        public static Format of(Path indexFile) throws IOException {
+            return IndexFileReader.isBinary(indexFile) ? BINARY : TEXT;
+        }
+    }
+
+    static final int BINARY_ENTRY = 1;
+
     private final Path indexFile;
     private final Path file;
+    private final Format format;
     private final boolean dryRun;
     private final AtomicBoolean failed;
     private final AtomicBoolean closed;
-    private final PrintWriter printWriter;
+    private final DataOutputStream outputStream;
 
+    /**
+     * Creates index writer that keeps the format of the existing index file, or writes text index if there is none.
+     */
     public IndexFileWriter(Path indexFile, boolean append, boolean dryRun) throws IOException {
+        this(indexFile, Format.of(indexFile), append, dryRun);
+    }
+
+    /**
+     * Creates index writer of given format. If appending to existing index having other format, the existing entries
+     * are converted.
+     */
+    public IndexFileWriter(Path indexFile, Format format, boolean append, boolean dryRun) throws IOException {
         this.indexFile = requireNonNull(indexFile, "indexFile").toAbsolutePath();
         this.file = indexFile
                 .getParent()
                 .resolve(".index-" + ThreadLocalRandom.current().nextInt());
-        if (Files.isRegularFile(this.indexFile) && append) {
-            Files.copy(this.indexFile, this.file);
-        }
+        this.format = requireNonNull(format, "format");
         this.dryRun = dryRun;
         this.failed = new AtomicBoolean(false);
         this.closed = new AtomicBoolean(false);
 
         if (dryRun) {
-            this.printWriter = null;
+            this.outputStream = null;
         } else {
-            this.printWriter = new PrintWriter(Files.newBufferedWriter(
+            boolean existing = append && Files.isRegularFile(this.indexFile);
+            boolean copy = existing && Format.of(this.indexFile) == format;
+            if (copy) {
+                Files.copy(this.indexFile, this.file);
+            }
+            this.outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(
                     file,
-                    append
+                    copy
                             ? new StandardOpenOption[] {
                                 StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND
                             }
@@ -56,10 +100,36 @@ public final class IndexFileWriter implements AutoCloseable {
                                 StandardOpenOption.CREATE,
                                 StandardOpenOption.WRITE,
                                 StandardOpenOption.TRUNCATE_EXISTING
-                            }));
+                            })));
+            try {
+                if (!copy && format == Format.BINARY) {
+                    outputStream.write(IndexFileReader.BINARY_MAGIC);
+                    outputStream.writeByte(IndexFileReader.BINARY_VERSION);
+                }
+                if (existing && !copy) {
+                    convert();
+                }
+            } catch (IOException e) {
+                outputStream.close();
+                Files.deleteIfExists(file);
+                throw e;
+            }
         }
     }
 
+    private void convert() throws IOException {
+        try (IndexFileReader indexFileReader = new IndexFileReader(indexFile);
+                Stream<IndexFileReader.Entry> entries = indexFileReader.stream()) {
+            entries.forEach(e -> emit(e.getArtifactId(), e.getPath(), e.getSize(), e.getLastModified(), e.getSha1()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
     public void write(Artifact artifact, String path) {
         requireNonNull(artifact, "artifact");
         requireNonNull(path, "path");
@@ -67,7 +137,49 @@ public final class IndexFileWriter implements AutoCloseable {
             throw new IllegalStateException("already closed");
         }
         if (!failed.get() && !dryRun) {
-            printWriter.println(ArtifactIdUtils.toId(artifact) + " >> " + path);
+            emit(ArtifactIdUtils.toId(artifact), path, -1, -1, null);
+        }
+    }
+
+    /**
+     * Writes index line along with written file size, last modified timestamp and SHA-1, usable as a manifest by
+     * incremental writers.
+     */
+    public void write(Artifact artifact, String path, long size, long lastModified, String sha1) {
+        requireNonNull(artifact, "artifact");
+        requireNonNull(path, "path");
+        requireNonNull(sha1, "sha1");
+        if (closed.get()) {
+            throw new IllegalStateException("already closed");
+        }
+        if (!failed.get() && !dryRun) {
+            emit(ArtifactIdUtils.toId(artifact), path, size, lastModified, sha1);
+        }
+    }
+
+    private synchronized void emit(String artifactId, String path, long size, long lastModified, String sha1) {
+        try {
+            if (format == Format.BINARY) {
+                outputStream.writeByte(BINARY_ENTRY);
+                outputStream.writeUTF(artifactId);
+                outputStream.writeUTF(path);
+                outputStream.writeLong(size);
+                outputStream.writeLong(lastModified);
+                if (sha1 != null && sha1.length() == 40) {
+                    outputStream.writeBoolean(true);
+                    outputStream.write(ChecksumUtils.fromHexString(sha1));
+                } else {
+                    outputStream.writeBoolean(false);
+                }
+            } else {
+                String line = artifactId + " >> " + path;
+                if (sha1 != null) {
+                    line += " >> " + size + " >> " + lastModified + " >> " + sha1;
+                }
+                outputStream.write((line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -81,8 +193,7 @@ public final class IndexFileWriter implements AutoCloseable {
             if (dryRun) {
                 return;
             }
-            printWriter.flush();
-            printWriter.close();
+            outputStream.close();
             if (failed.get()) {
                 Files.deleteIfExists(file);
             } else {
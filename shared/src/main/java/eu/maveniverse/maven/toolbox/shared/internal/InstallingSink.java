@@ -70,7 +70,12 @@ public final class InstallingSink implements Artifacts.Sink {
     public void close() throws InstallationException {
         output.chatter("Installing {} artifacts", installRequest.getArtifacts().size());
         if (!dryRun) {
-            system.install(session, installRequest);
+            try {
+                system.install(session, installRequest);
+            } finally {
+                CollectResultCache.invalidate(session);
+                VersionsCache.invalidate(session);
+            }
         }
     }
 }
@@ -7,6 +7,7 @@
  */
 package eu.maveniverse.maven.toolbox.shared.internal;
 
+import java.util.Objects;
 import org.eclipse.aether.collection.DependencyCollectionContext;
 import org.eclipse.aether.collection.DependencySelector;
 import org.eclipse.aether.graph.Dependency;
@@ -43,4 +44,25 @@ public class LevelDependencySelector implements DependencySelector {
             return new LevelDependencySelector(maxLevel, newLevel);
         }
     }
+
+    /**
+     * Selectors on same level are equal, this allows collector to share the children of same artifact reached on
+     * same level (through its data pool), which hugely reduces the size of dirty graphs.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LevelDependencySelector that = (LevelDependencySelector) o;
+        return maxLevel == that.maxLevel && currentLevel == that.currentLevel;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxLevel, currentLevel);
+    }
 }
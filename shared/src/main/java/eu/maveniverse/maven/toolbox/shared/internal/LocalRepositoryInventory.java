@@ -0,0 +1,500 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import eu.maveniverse.maven.toolbox.shared.ArtifactMatcher;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent inventory of local repository: it is a source supplying same artifacts as {@link LocalRepositorySource}
+ * does, but it keeps one row per artifact file (coordinates, size, last modified and SHA-1, if the {@code .sha1} file
+ * is present) in the {@value #FILE_NAME} file in the root of local repository. On each use the inventory is updated
+ * incrementally: every directory is checked for its last modified timestamp, and only those that changed since
+ * last use are listed and have their POMs parsed. Hence, the repeated use costs one "stat" per directory plus
+ * listing of changed directories only.
+ * <p>
+ * The file is line based and append-friendly: each update appends the blocks of changed directories only, and
+ * the later block of same directory wins. Once the file holds too many superseded blocks, it is rewritten. The
+ * inventory is merely a cache: if it is missing, damaged, or cannot be written (ie. read-only local repository), the
+ * local repository is scanned as if there was no inventory.
+ * <p>
+ * Inventory may be pruned with {@link ArtifactMatcher} (see {@link #pruned(ArtifactMatcher)}), in which case only the
+ * subtrees that may hold matching artifacts are checked and supplied, same as with
+ * {@link LocalRepositorySource#pruned(ArtifactMatcher)}, while the rest of inventory is retained as is.
+ * <p>
+ * Note: files overwritten "in place" (without creating a new file) do not change the last modified timestamp of
+ * their directory, hence their size and last modified in inventory may be stale. Maven Resolver does not write files
+ * this way.
+ */
+public final class LocalRepositoryInventory implements Artifacts.Source {
+    /**
+     * The name of inventory file, placed in the root of local repository.
+     */
+    public static final String FILE_NAME = ".toolbox-inventory";
+
+    /**
+     * Artifact property: the size of artifact file, as recorded in inventory.
+     */
+    public static final String PROPERTY_SIZE = "toolbox.inventory.size";
+
+    /**
+     * Artifact property: the last modified timestamp of artifact file, as recorded in inventory.
+     */
+    public static final String PROPERTY_LAST_MODIFIED = "toolbox.inventory.lastModified";
+
+    /**
+     * Artifact property: the SHA-1 of artifact file, as recorded in inventory, if known.
+     */
+    public static final String PROPERTY_SHA1 = "toolbox.inventory.sha1";
+
+    /**
+     * Creates inventory of given local repository, that processes changed directories using at most {@code threads}
+     * threads.
+     */
+    public static LocalRepositoryInventory inventory(Path localRepository, int threads) {
+        return new LocalRepositoryInventory(localRepository, threads, null);
+    }
+
+    private static final String HEADER = "# toolbox local repository inventory v1";
+
+    /**
+     * Directories modified this recently (relative to start of update) are not recorded as up to date, as changes
+     * made within same timestamp granularity would go unnoticed.
+     */
+    private static final long RACY_MILLIS = 2000;
+
+    /**
+     * Slack of superseded blocks the file may hold before it is rewritten.
+     */
+    private static final int COMPACT_SLACK = 64;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final Path localRepository;
+    private final Path file;
+    private final int threads;
+    private final LocalRepositorySource parser;
+    private final List<String> pathPrefixes;
+    private volatile int scannedDirectories;
+    private volatile int changedDirectories;
+
+    private LocalRepositoryInventory(Path localRepository, int threads, List<String> pathPrefixes) {
+        this.parser = LocalRepositorySource.local(localRepository);
+        this.localRepository = parser.getDirectory();
+        this.file = this.localRepository.resolve(FILE_NAME);
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be greater than zero");
+        }
+        this.threads = threads;
+        this.pathPrefixes = pathPrefixes;
+        this.scannedDirectories = -1;
+        this.changedDirectories = -1;
+    }
+
+    /**
+     * Returns inventory that checks and supplies only the subtrees that may hold artifacts matched by given matcher.
+     */
+    public LocalRepositoryInventory pruned(ArtifactMatcher matcher) {
+        requireNonNull(matcher, "matcher");
+        return new LocalRepositoryInventory(localRepository, threads, LocalRepositorySource.pathPrefixes(matcher));
+    }
+
+    public Path getLocalRepository() {
+        return localRepository;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns the count of directories checked by last update, or -1 if not updated yet.
+     */
+    public int getScannedDirectories() {
+        return scannedDirectories;
+    }
+
+    /**
+     * Returns the count of directories found changed (and hence listed) by last update, or -1 if not updated yet.
+     */
+    public int getChangedDirectories() {
+        return changedDirectories;
+    }
+
+    @Override
+    public Stream<Artifact> get() throws IOException {
+        List<Directory> directories = update();
+        return directories.stream()
+                .filter(d -> LocalRepositorySource.holds(pathPrefixes, d.path))
+                .flatMap(d -> {
+                    Path directory = resolve(d.path);
+                    return d.rows.stream().map(r -> r.toArtifact(directory));
+                });
+    }
+
+    /**
+     * Updates the inventory, and returns directories in walk order.
+     */
+    private List<Directory> update() throws IOException {
+        long start = System.currentTimeMillis();
+        HashMap<String, Directory> known = new HashMap<>();
+        int blocks = load(known);
+
+        ArrayList<Directory> directories = new ArrayList<>();
+        ArrayList<Directory> changed = new ArrayList<>();
+        ArrayDeque<String> pending = new ArrayDeque<>();
+        pending.push("");
+        while (!pending.isEmpty()) {
+            String path = pending.pop();
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(resolve(path), BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                continue; // removed meanwhile
+            }
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            Directory directory = known.get(path);
+            if (directory == null || directory.lastModified == -1 || directory.lastModified != lastModified) {
+                directory = list(path, lastModified >= start - RACY_MILLIS ? -1 : lastModified);
+                changed.add(directory);
+            }
+            directories.add(directory);
+            // push in reverse, to visit subdirectories in sorted order
+            for (int i = directory.subdirectories.size() - 1; i >= 0; i--) {
+                String child = child(path, directory.subdirectories.get(i));
+                if (LocalRepositorySource.walks(pathPrefixes, child)) {
+                    pending.push(child);
+                }
+            }
+        }
+
+        ArrayList<Callable<Directory>> parses = new ArrayList<>();
+        for (Directory directory : changed) {
+            parses.add(() -> parse(directory));
+        }
+        try {
+            ConcurrentSupport.invokeAll(threads, "toolbox-inventory", parses);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+        scannedDirectories = directories.size();
+        changedDirectories = changed.size();
+        logger.debug(
+                "Inventory of {}: {} directories, {} changed", localRepository, directories.size(), changed.size());
+
+        List<Directory> retained = directories;
+        if (pathPrefixes != null) {
+            // directories not walked are retained as they are
+            HashMap<String, Directory> all = new HashMap<>(known);
+            directories.forEach(d -> all.put(d.path, d));
+            retained = new ArrayList<>(all.values());
+        }
+        try {
+            if (blocks == 0 || blocks + changed.size() > 2 * retained.size() + COMPACT_SLACK) {
+                rewrite(retained);
+            } else if (!changed.isEmpty()) {
+                append(changed);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write local repository inventory {}: {}", file, e.getMessage());
+        }
+        return directories;
+    }
+
+    private Path resolve(String path) {
+        return path.isEmpty() ? localRepository : localRepository.resolve(path);
+    }
+
+    private static String child(String path, String name) {
+        return path.isEmpty() ? name : path + "/" + name;
+    }
+
+    private Directory list(String path, long lastModified) throws IOException {
+        Directory directory = new Directory(path, lastModified);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(resolve(path))) {
+            for (Path entry : stream) {
+                BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                String name = entry.getFileName().toString();
+                if (attributes.isDirectory()) {
+                    directory.subdirectories.add(name);
+                } else if (attributes.isRegularFile()) {
+                    directory.files.add(name);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // removed meanwhile
+        }
+        Collections.sort(directory.subdirectories);
+        Collections.sort(directory.files);
+        return directory;
+    }
+
+    private Directory parse(Directory directory) throws IOException {
+        if (directory.files.stream().noneMatch(n -> n.endsWith(".pom"))) {
+            return directory;
+        }
+        Path path = resolve(directory.path);
+        for (Artifact artifact : parser.collectArtifacts(path, directory.files)) {
+            String fileName = artifact.getFile().getName();
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path.resolve(fileName), BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                continue; // removed meanwhile
+            }
+            String sha1 = null;
+            if (directory.files.contains(fileName + ".sha1")) {
+                sha1 = readSha1(path.resolve(fileName + ".sha1"));
+            }
+            directory.rows.add(new Row(
+                    artifact.getGroupId(),
+                    artifact.getArtifactId(),
+                    artifact.getClassifier(),
+                    artifact.getExtension(),
+                    artifact.getVersion(),
+                    fileName,
+                    attributes.size(),
+                    attributes.lastModifiedTime().toMillis(),
+                    sha1));
+        }
+        return directory;
+    }
+
+    private static String readSha1(Path sha1File) {
+        try {
+            String checksum = new String(Files.readAllBytes(sha1File), StandardCharsets.US_ASCII).trim();
+            int space = checksum.indexOf(' ');
+            if (space > 0) {
+                checksum = checksum.substring(0, space);
+            }
+            return checksum.length() == 40 ? checksum : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads the inventory file into passed in map, and returns the count of blocks in the file. If file is missing,
+     * is of unknown version or is damaged, the map is left empty and 0 is returned. Incomplete last block (as in case
+     * of interrupted append) is ignored.
+     */
+    private int load(Map<String, Directory> directories) {
+        if (!Files.isRegularFile(file)) {
+            return 0;
+        }
+        int blocks = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                return 0;
+            }
+            Directory current = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", -1);
+                switch (parts[0]) {
+                    case "D":
+                        check(parts.length == 3);
+                        current = new Directory(parts[1], Long.parseLong(parts[2]));
+                        break;
+                    case "S":
+                        check(parts.length == 2 && current != null);
+                        current.subdirectories.add(parts[1]);
+                        break;
+                    case "A":
+                        check(parts.length == 10 && current != null);
+                        current.rows.add(new Row(
+                                parts[1],
+                                parts[2],
+                                parts[3],
+                                parts[4],
+                                parts[5],
+                                parts[6],
+                                Long.parseLong(parts[7]),
+                                Long.parseLong(parts[8]),
+                                parts[9].isEmpty() ? null : parts[9]));
+                        break;
+                    case "E":
+                        check(current != null);
+                        directories.put(current.path, current);
+                        current = null;
+                        blocks++;
+                        break;
+                    default:
+                        check(false);
+                }
+            }
+            return blocks;
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debug("Discarding local repository inventory {}: {}", file, e.getMessage());
+            directories.clear();
+            return 0;
+        }
+    }
+
+    private static void check(boolean condition) {
+        if (!condition) {
+            throw new IllegalArgumentException("malformed inventory");
+        }
+    }
+
+    private void append(List<Directory> changed) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (Directory directory : changed) {
+            directory.write(sb);
+        }
+        // single write, so concurrent appends do not interleave
+        Files.write(
+                file,
+                sb.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void rewrite(List<Directory> directories) throws IOException {
+        StringBuilder sb = new StringBuilder(HEADER).append('\n');
+        for (Directory directory : directories) {
+            directory.write(sb);
+        }
+        Path tmp = file.resolveSibling(FILE_NAME + "." + ThreadLocalRandom.current().nextInt() + ".tmp");
+        try {
+            Files.write(tmp, sb.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static final class Directory {
+        private final String path;
+        private final long lastModified;
+        private final ArrayList<String> subdirectories;
+        private final ArrayList<String> files; // only when listed
+        private final ArrayList<Row> rows;
+
+        private Directory(String path, long lastModified) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.subdirectories = new ArrayList<>();
+            this.files = new ArrayList<>();
+            this.rows = new ArrayList<>();
+        }
+
+        private void write(StringBuilder sb) {
+            sb.append("D\t").append(path).append('\t').append(lastModified).append('\n');
+            for (String subdirectory : subdirectories) {
+                sb.append("S\t").append(subdirectory).append('\n');
+            }
+            for (Row row : rows) {
+                row.write(sb);
+            }
+            sb.append("E\n");
+        }
+    }
+
+    private static final class Row {
+        private final String groupId;
+        private final String artifactId;
+        private final String classifier;
+        private final String extension;
+        private final String version;
+        private final String fileName;
+        private final long size;
+        private final long lastModified;
+        private final String sha1;
+
+        private Row(
+                String groupId,
+                String artifactId,
+                String classifier,
+                String extension,
+                String version,
+                String fileName,
+                long size,
+                long lastModified,
+                String sha1) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.classifier = classifier;
+            this.extension = extension;
+            this.version = version;
+            this.fileName = fileName;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha1 = sha1;
+        }
+
+        private Artifact toArtifact(Path directory) {
+            HashMap<String, String> properties = new HashMap<>();
+            properties.put(PROPERTY_SIZE, Long.toString(size));
+            properties.put(PROPERTY_LAST_MODIFIED, Long.toString(lastModified));
+            if (sha1 != null) {
+                properties.put(PROPERTY_SHA1, sha1);
+            }
+            return new DefaultArtifact(
+                    groupId,
+                    artifactId,
+                    classifier,
+                    extension,
+                    version,
+                    properties,
+                    directory.resolve(fileName).toFile());
+        }
+
+        private void write(StringBuilder sb) {
+            sb.append("A\t")
+                    .append(groupId)
+                    .append('\t')
+                    .append(artifactId)
+                    .append('\t')
+                    .append(classifier)
+                    .append('\t')
+                    .append(extension)
+                    .append('\t')
+                    .append(version)
+                    .append('\t')
+                    .append(fileName)
+                    .append('\t')
+                    .append(size)
+                    .append('\t')
+                    .append(lastModified)
+                    .append('\t')
+                    .append(sha1 != null ? sha1 : "")
+                    .append('\n');
+        }
+    }
+}
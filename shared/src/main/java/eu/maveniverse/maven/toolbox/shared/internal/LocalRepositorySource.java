@@ -9,22 +9,31 @@ package eu.maveniverse.maven.toolbox.shared.internal;
 
 import static java.util.Objects.requireNonNull;
 
+import eu.maveniverse.maven.toolbox.shared.ArtifactMatcher;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
-import java.nio.file.FileVisitResult;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.PathMatcher;
-import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Objects;
-import java.util.function.Predicate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
-import org.apache.maven.model.Model;
-import org.apache.maven.model.io.xpp3.MavenXpp3ReaderEx;
-import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import java.util.stream.StreamSupport;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.util.artifact.SubArtifact;
@@ -34,6 +43,16 @@ import org.slf4j.LoggerFactory;
 /**
  * Construction to supply collection of artifacts that are installed in given local repository.
  * <p>
+ * The local repository is walked lazily, directory by directory, and artifacts are emitted as directories are
+ * visited; the listing of directory made by the walk is reused to find the artifacts belonging to POMs in it. POMs
+ * are not fully parsed, only their coordinates (and parent coordinates) are read, and parsing stops as soon as they
+ * are known. When {@code threads} is greater than 1, directories are processed in parallel, while the order of
+ * emitted artifacts remains the same as in sequential mode.
+ * <p>
+ * Source may be pruned with {@link ArtifactMatcher} (see {@link #pruned(ArtifactMatcher)}): the subtrees that cannot
+ * hold artifacts matched by it (according to {@link ArtifactMatcher#keyPrefixes()}) are not walked. Pruning relies on
+ * artifacts being in line with repository layout, and does not filter: the matcher still has to be applied.
+ * <p>
  * Big fat note: "reverse engineering" file paths into GAVs is a risky business, and this code
  * assumes that Artifact classifiers does not contain {@code "."} (dot). In a moment your classifiers
  * do have dot character, figuring out extensions becomes much, much harder.
@@ -43,113 +62,406 @@ public final class LocalRepositorySource implements Artifacts.Source {
      * Creates plain local repository source, that supplies all artifacts it has.
      */
     public static LocalRepositorySource local(Path directory) {
-        return new LocalRepositorySource(directory);
+        return new LocalRepositorySource(directory, 1, null);
     }
 
+    /**
+     * Creates plain local repository source, that supplies all artifacts it has, processing directories using at
+     * most {@code threads} threads.
+     */
+    public static LocalRepositorySource local(Path directory, int threads) {
+        return new LocalRepositorySource(directory, threads, null);
+    }
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = xmlInputFactory();
+
+    private static final List<String> COORDINATES = Arrays.asList("groupId", "artifactId", "version");
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final Path directory;
-    private final MavenXpp3ReaderEx reader;
+    private final int threads;
+    private final List<String> pathPrefixes;
 
     /**
      * Creates a local repository source.
      *
-     * @param directory The directory, if not existing, will be created.
+     * @param directory The directory, must exist.
+     * @param threads The count of threads to process directories with.
+     * @param pathPrefixes The relative path prefixes to walk, or {@code null} to walk all.
      */
-    private LocalRepositorySource(Path directory) {
+    private LocalRepositorySource(Path directory, int threads, List<String> pathPrefixes) {
         this.directory = requireNonNull(directory, "directory").toAbsolutePath();
         if (!Files.isDirectory(directory)) {
             throw new IllegalArgumentException("directory must exists");
         }
-        this.reader = new MavenXpp3ReaderEx();
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be greater than zero");
+        }
+        this.threads = threads;
+        this.pathPrefixes = pathPrefixes;
+    }
+
+    /**
+     * Returns source that walks only the subtrees that may hold artifacts matched by given matcher.
+     */
+    public LocalRepositorySource pruned(ArtifactMatcher matcher) {
+        requireNonNull(matcher, "matcher");
+        return new LocalRepositorySource(directory, threads, pathPrefixes(matcher));
+    }
+
+    /**
+     * Translates key prefixes of matcher into relative path prefixes ("/" separated), or returns {@code null} if
+     * matcher may match any artifact.
+     */
+    static List<String> pathPrefixes(ArtifactMatcher matcher) {
+        ArrayList<String> result = new ArrayList<>();
+        for (String keyPrefix : matcher.keyPrefixes()) {
+            if (keyPrefix.isEmpty()) {
+                return null;
+            }
+            int colon = keyPrefix.indexOf(':');
+            if (colon < 0) {
+                result.add(keyPrefix.replace('.', '/'));
+            } else {
+                result.add(keyPrefix.substring(0, colon).replace('.', '/') + "/"
+                        + keyPrefix.substring(colon + 1).replace(':', '/'));
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Tells whether directory at given relative path ("/" separated) is to be walked: it may hold, or it is an
+     * ancestor of directory that may hold matching artifacts.
+     */
+    static boolean walks(List<String> pathPrefixes, String relativePath) {
+        if (pathPrefixes == null || relativePath.isEmpty()) {
+            return true;
+        }
+        String path = relativePath + "/";
+        for (String prefix : pathPrefixes) {
+            if (path.startsWith(prefix) || prefix.startsWith(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether directory at given relative path ("/" separated) may hold matching artifacts.
+     */
+    static boolean holds(List<String> pathPrefixes, String relativePath) {
+        if (pathPrefixes == null) {
+            return true;
+        }
+        String path = relativePath + "/";
+        for (String prefix : pathPrefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public Path getDirectory() {
         return directory;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
     @Override
     public Stream<Artifact> get() throws IOException {
-        return poms().map(this::pomToArtifact)
-                .filter(Objects::nonNull)
-                .flatMap(this::collectPomArtifacts)
-                .filter(Objects::nonNull);
+        Iterator<Listing> listings = new Walk(directory, pathPrefixes);
+        if (threads == 1) {
+            return StreamSupport.stream(
+                            Spliterators.spliteratorUnknownSize(listings, Spliterator.ORDERED | Spliterator.NONNULL),
+                            false)
+                    .flatMap(l -> collectArtifacts(l).stream());
+        }
+        Parallel parallel = new Parallel(listings);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(parallel, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .flatMap(List::stream)
+                .onClose(parallel::shutdown);
     }
 
-    private Stream<Path> poms() {
-        ArrayList<Path> poms = new ArrayList<>();
-        PathMatcher pomMatcher = directory.getFileSystem().getPathMatcher("glob:**/*.pom");
-        try {
-            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                    if (pomMatcher.matches(file)) {
-                        poms.add(file);
+    /**
+     * Listing of one directory having POMs in it: the names of regular files, sorted.
+     */
+    private static final class Listing {
+        private final Path directory;
+        private final List<String> files;
+
+        private Listing(Path directory, List<String> files) {
+            this.directory = directory;
+            this.files = files;
+        }
+    }
+
+    /**
+     * Lazy depth-first walk, that lists each directory once, and yields listings of directories having POMs.
+     */
+    private static final class Walk implements Iterator<Listing> {
+        private final Path root;
+        private final List<String> pathPrefixes;
+        private final ArrayDeque<Path> pending;
+        private Listing next;
+
+        private Walk(Path root, List<String> pathPrefixes) {
+            this.root = root;
+            this.pathPrefixes = pathPrefixes;
+            this.pending = new ArrayDeque<>();
+            this.pending.push(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !pending.isEmpty()) {
+                next = list(pending.pop());
+            }
+            return next != null;
+        }
+
+        @Override
+        public Listing next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Listing result = next;
+            next = null;
+            return result;
+        }
+
+        private Listing list(Path directory) {
+            ArrayList<Path> directories = new ArrayList<>();
+            ArrayList<String> files = new ArrayList<>();
+            boolean hasPom = false;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    if (attributes.isDirectory()) {
+                        if (walks(pathPrefixes, relativePath(path))) {
+                            directories.add(path);
+                        }
+                    } else if (attributes.isRegularFile()) {
+                        String name = path.getFileName().toString();
+                        files.add(name);
+                        hasPom = hasPom || name.endsWith(".pom");
                     }
-                    return super.visitFile(file, attrs);
                 }
-            });
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // push in reverse, to visit subdirectories in sorted order
+            directories.sort(Collections.reverseOrder());
+            directories.forEach(pending::push);
+            if (hasPom && holds(pathPrefixes, relativePath(directory))) {
+                Collections.sort(files);
+                return new Listing(directory, files);
+            }
+            return null;
+        }
+
+        private String relativePath(Path path) {
+            StringBuilder sb = new StringBuilder();
+            for (Path name : root.relativize(path)) {
+                if (sb.length() > 0) {
+                    sb.append('/');
+                }
+                sb.append(name);
+            }
+            return sb.toString();
         }
-        return poms.stream();
     }
 
-    private Artifact pomToArtifact(Path file) {
-        try (InputStream is = Files.newInputStream(file)) {
-            Model model = reader.read(is, false, null);
-            String g = model.getGroupId();
-            if (g == null || g.trim().isEmpty()) {
-                g = model.getParent().getGroupId();
+    /**
+     * Processes listings on executor with bounded look-ahead, and yields results in walk order.
+     */
+    private final class Parallel implements Iterator<List<Artifact>> {
+        private final Iterator<Listing> listings;
+        private final ArrayDeque<Future<List<Artifact>>> inFlight;
+        private final int lookAhead;
+        private ExecutorService executor;
+
+        private Parallel(Iterator<Listing> listings) {
+            this.listings = listings;
+            this.inFlight = new ArrayDeque<>();
+            this.lookAhead = threads * 8;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (inFlight.size() < lookAhead && listings.hasNext()) {
+                if (executor == null) {
+                    executor = ConcurrentSupport.executor(threads, "toolbox-local");
+                }
+                Listing listing = listings.next();
+                inFlight.add(executor.submit(() -> collectArtifacts(listing)));
+            }
+            if (inFlight.isEmpty()) {
+                shutdown();
+                return false;
             }
-            String a = model.getArtifactId();
-            if (a == null || a.trim().isEmpty()) {
-                a = model.getParent().getArtifactId();
+            return true;
+        }
+
+        @Override
+        public List<Artifact> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-            String v = model.getVersion();
-            if (v == null || v.trim().isEmpty()) {
-                v = model.getParent().getVersion();
+            try {
+                return ConcurrentSupport.await(inFlight.poll());
+            } catch (RuntimeException e) {
+                shutdown();
+                throw e;
+            } catch (Exception e) {
+                shutdown();
+                throw new IllegalStateException(e);
             }
+        }
+
+        private void shutdown() {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
 
-            if (g != null && a != null && v != null) {
-                return new DefaultArtifact(g, a, null, "pom", v).setFile(file.toFile());
+    private List<Artifact> collectArtifacts(Listing listing) {
+        return collectArtifacts(listing.directory, listing.files);
+    }
+
+    /**
+     * Collects artifacts of given directory, having given (sorted) regular files in it.
+     */
+    List<Artifact> collectArtifacts(Path directory, List<String> files) {
+        ArrayList<Artifact> result = new ArrayList<>();
+        for (String pomFileName : files) {
+            if (pomFileName.endsWith(".pom")) {
+                Artifact pom = pomToArtifact(directory.resolve(pomFileName));
+                if (pom != null) {
+                    collectPomArtifacts(pom, pomFileName, files, result);
+                }
             }
-        } catch (IOException | XmlPullParserException e) {
+        }
+        return result;
+    }
+
+    private Artifact pomToArtifact(Path file) {
+        try (InputStream is = Files.newInputStream(file)) {
+            String[] gav = readCoordinates(is, file);
+            if (gav != null) {
+                return new DefaultArtifact(gav[0], gav[1], null, "pom", gav[2]).setFile(file.toFile());
+            }
+        } catch (IOException | XMLStreamException e) {
             logger.info("Could not parse POM at {}", file, e);
         }
         return null;
     }
 
-    private Stream<Artifact> collectPomArtifacts(Artifact pom) {
-        ArrayList<Artifact> result = new ArrayList<>();
-        result.add(pom);
-        String pomFileName = pom.getFile().getName();
-        String fileNamePrefix = pomFileName.substring(0, pom.getFile().getName().length() - 4);
-        try (Stream<Path> files = Files.list(pom.getFile().toPath().getParent())) {
-            files.filter(notItselfAndNotChecksum(pomFileName, fileNamePrefix)).forEach(p -> {
-                String filename = p.getFileName().toString().substring(fileNamePrefix.length());
-                if (filename.startsWith(".")) {
-                    // no classifier, only ext
-                    result.add(new SubArtifact(pom, null, filename.substring(1)).setFile(p.toFile()));
-                } else if (filename.startsWith("-")) {
-                    // classifier + ext // assuming classifier have no dot!
-                    String classifier = filename.substring(1, filename.indexOf("."));
-                    String extension = filename.substring(filename.indexOf(".") + 1);
-                    result.add(new SubArtifact(pom, classifier, extension).setFile(p.toFile()));
+    /**
+     * Reads the coordinates out of POM, using parent coordinates for inherited ones. Reading stops once coordinates
+     * are known, and they are in line with the local repository layout (groupId, artifactId and version directories),
+     * otherwise the whole POM is read, as coordinates may be declared in any order.
+     */
+    static String[] readCoordinates(InputStream inputStream, Path file) throws XMLStreamException {
+        String[] coordinates = new String[6]; // g, a, v, parent g, parent a, parent v
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+        try {
+            int depth = 0;
+            boolean inParent = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String name = reader.getLocalName();
+                    int index = COORDINATES.indexOf(name);
+                    if (depth == 2 && "parent".equals(name)) {
+                        inParent = true;
+                    } else if (index >= 0 && (depth == 2 || (depth == 3 && inParent))) {
+                        // reads up to (and consumes) the end element
+                        coordinates[depth == 2 ? index : index + 3] = reader.getElementText().trim();
+                        depth--;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                    if (depth == 1) {
+                        inParent = false;
+                    }
+                }
+                // once on top level: stop if coordinates are complete and are in line with the layout
+                if (depth == 1 && event != XMLStreamConstants.CHARACTERS && event != XMLStreamConstants.SPACE) {
+                    String[] gav = effective(coordinates);
+                    if (gav != null && coordinates[1] != null && matchesLayout(file, gav)) {
+                        return gav;
+                    }
                 }
-            });
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+            }
+        } finally {
+            reader.close();
+        }
+        return effective(coordinates);
+    }
+
+    private static String[] effective(String[] coordinates) {
+        String[] gav = new String[3];
+        for (int i = 0; i < 3; i++) {
+            gav[i] = coordinates[i] != null ? coordinates[i] : coordinates[i + 3];
+            if (gav[i] == null || gav[i].isEmpty()) {
+                return null;
+            }
+        }
+        return gav;
+    }
+
+    private static boolean matchesLayout(Path file, String[] gav) {
+        Path versionDirectory = file.getParent();
+        Path artifactDirectory = versionDirectory != null ? versionDirectory.getParent() : null;
+        return artifactDirectory != null
+                && artifactDirectory.getParent() != null
+                && gav[2].equals(versionDirectory.getFileName().toString())
+                && gav[1].equals(artifactDirectory.getFileName().toString())
+                && artifactDirectory
+                        .getParent()
+                        .endsWith(artifactDirectory.getFileSystem().getPath(gav[0].replace('.', '/')));
+    }
+
+    private static void collectPomArtifacts(
+            Artifact pom, String pomFileName, List<String> files, List<Artifact> result) {
+        result.add(pom);
+        String fileNamePrefix = pomFileName.substring(0, pomFileName.length() - 4);
+        Path directory = pom.getFile().toPath().getParent();
+        for (String name : files) {
+            if (pomFileName.equals(name)
+                    || !name.startsWith(fileNamePrefix)
+                    || name.endsWith(".sha1")
+                    || name.endsWith(".md5")) {
+                continue;
+            }
+            String filename = name.substring(fileNamePrefix.length());
+            if (filename.startsWith(".")) {
+                // no classifier, only ext
+                result.add(new SubArtifact(pom, null, filename.substring(1)).setFile(directory.resolve(name).toFile()));
+            } else if (filename.startsWith("-") && filename.indexOf(".") > 1) {
+                // classifier + ext // assuming classifier have no dot!
+                String classifier = filename.substring(1, filename.indexOf("."));
+                String extension = filename.substring(filename.indexOf(".") + 1);
+                result.add(new SubArtifact(pom, classifier, extension).setFile(directory.resolve(name).toFile()));
+            }
         }
-        return result.stream();
     }
 
-    private static Predicate<Path> notItselfAndNotChecksum(String fname, String prefix) {
-        return p -> {
-            String filename = p.getFileName().toString();
-            return !fname.equals(filename)
-                    && filename.startsWith(prefix)
-                    && !filename.endsWith(".sha1")
-                    && !filename.endsWith(".md5");
-        };
+    private static XMLInputFactory xmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
     }
 }
@@ -11,24 +11,22 @@ import static java.util.Objects.requireNonNull;
 
 import eu.maveniverse.maven.toolbox.shared.output.Output;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.function.Function;
-import java.util.jar.JarFile;
-import java.util.jar.Manifest;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.graph.DependencyNode;
 import org.eclipse.aether.graph.DependencyVisitor;
 
 /**
- * Sink that extracts module descriptors from artifacts.
+ * Sink that extracts module descriptors from artifacts. Artifacts are scanned in parallel using
+ * {@link ModuleDescriptorScanner}, while getters wait for scans to complete. By default, at most
+ * {@value #DEFAULT_THREADS} threads are used, as sinks are often created per root.
  */
 public final class ModuleDescriptorExtractingSink implements Artifacts.Sink, DependencyVisitor {
     public interface ModuleDescriptor {
@@ -39,19 +37,64 @@ public final class ModuleDescriptorExtractingSink implements Artifacts.Sink, Dep
         String moduleNameSource();
     }
 
+    private static final int DEFAULT_THREADS = 4;
+
     private final Output output;
-    private final ConcurrentMap<Artifact, ModuleDescriptor> moduleDescriptors;
+    private final int threads;
+    private final Map<Artifact, Future<ModuleDescriptor>> scans;
+    private ExecutorService executor;
 
     public ModuleDescriptorExtractingSink(Output output) {
+        this(output, Math.min(DEFAULT_THREADS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public ModuleDescriptorExtractingSink(Output output, int threads) {
         this.output = requireNonNull(output, "output");
-        this.moduleDescriptors = new ConcurrentHashMap<>();
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be greater than zero");
+        }
+        this.threads = threads;
+        this.scans = Collections.synchronizedMap(new LinkedHashMap<>());
     }
 
     @Override
     public void accept(Artifact artifact) throws IOException {
         if (artifact.getFile() != null) {
-            moduleDescriptors.computeIfAbsent(
-                    artifact, k -> getModuleDescriptor(artifact.getFile().toPath()));
+            synchronized (scans) {
+                if (!scans.containsKey(artifact)) {
+                    Path path = artifact.getFile().toPath();
+                    FutureTask<ModuleDescriptor> scan = new FutureTask<>(() -> scan(path));
+                    scans.put(artifact, scan);
+                    if (threads > 1) {
+                        if (executor == null) {
+                            executor = ConcurrentSupport.executor(threads, "toolbox-module");
+                        }
+                        executor.execute(scan);
+                    } else {
+                        scan.run();
+                    }
+                }
+            }
+        }
+    }
+
+    private ModuleDescriptor scan(Path path) {
+        try {
+            return ModuleDescriptorScanner.scan(path);
+        } catch (IOException e) {
+            output.warn("Can't extract module name from {}:", path.getFileName(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (scans) {
+            if (executor != null) {
+                // scans are awaited by getters, executor just stops accepting new ones
+                executor.shutdown();
+                executor = null;
+            }
         }
     }
 
@@ -68,71 +111,37 @@ public final class ModuleDescriptorExtractingSink implements Artifacts.Sink, Dep
     }
 
     public ModuleDescriptor getModuleDescriptor(Artifact artifact) {
-        return moduleDescriptors.get(artifact);
+        Future<ModuleDescriptor> scan = scans.get(artifact);
+        return scan != null ? await(scan) : null;
     }
 
+    /**
+     * Returns module descriptors of accepted artifacts, in acceptance order, waiting for pending scans.
+     */
     public Map<Artifact, ModuleDescriptor> getModuleDescriptors() {
-        return Collections.unmodifiableMap(moduleDescriptors);
+        LinkedHashMap<Artifact, Future<ModuleDescriptor>> pending;
+        synchronized (scans) {
+            pending = new LinkedHashMap<>(scans);
+        }
+        LinkedHashMap<Artifact, ModuleDescriptor> result = new LinkedHashMap<>();
+        for (Map.Entry<Artifact, Future<ModuleDescriptor>> entry : pending.entrySet()) {
+            ModuleDescriptor moduleDescriptor = await(entry.getValue());
+            if (moduleDescriptor != null) {
+                result.put(entry.getKey(), moduleDescriptor);
+            }
+        }
+        return Collections.unmodifiableMap(result);
     }
 
-    private ModuleDescriptor getModuleDescriptor(Path artifactPath) {
-        ModuleDescriptorImpl moduleDescriptor = null;
+    private ModuleDescriptor await(Future<ModuleDescriptor> scan) {
         try {
-            // Use Java9 code to get moduleName, don't try to do it better with own implementation
-            Class<?> moduleFinderClass = Class.forName("java.lang.module.ModuleFinder");
-
-            Method ofMethod = moduleFinderClass.getMethod("of", java.nio.file.Path[].class);
-            Object moduleFinderInstance = ofMethod.invoke(null, new Object[] {new java.nio.file.Path[] {artifactPath}});
-
-            Method findAllMethod = moduleFinderClass.getMethod("findAll");
-            Set<Object> moduleReferences = (Set<Object>) findAllMethod.invoke(moduleFinderInstance);
-
-            // moduleReferences can be empty when referring to target/classes without module-info.class
-            if (!moduleReferences.isEmpty()) {
-                Object moduleReference = moduleReferences.iterator().next();
-                Method descriptorMethod = moduleReference.getClass().getMethod("descriptor");
-                Object moduleDescriptorInstance = descriptorMethod.invoke(moduleReference);
-
-                Method nameMethod = moduleDescriptorInstance.getClass().getMethod("name");
-                String name = (String) nameMethod.invoke(moduleDescriptorInstance);
-
-                moduleDescriptor = new ModuleDescriptorImpl();
-                moduleDescriptor.name = name;
-
-                Method isAutomaticMethod = moduleDescriptorInstance.getClass().getMethod("isAutomatic");
-                moduleDescriptor.automatic = (Boolean) isAutomaticMethod.invoke(moduleDescriptorInstance);
-
-                if (moduleDescriptor.automatic) {
-                    if (Files.isRegularFile(artifactPath)) {
-                        try (JarFile jarFile = new JarFile(artifactPath.toFile())) {
-                            Manifest manifest = jarFile.getManifest();
-
-                            if (manifest != null
-                                    && manifest.getMainAttributes().getValue("Automatic-Module-Name") != null) {
-                                moduleDescriptor.moduleNameSource = "MANIFEST";
-                            } else {
-                                moduleDescriptor.moduleNameSource = "FILENAME";
-                            }
-                        } catch (IOException e) {
-                            // noop
-                        }
-                    }
-                }
-            }
-        } catch (ClassNotFoundException
-                | SecurityException
-                | IllegalAccessException
-                | IllegalArgumentException
-                | NoSuchMethodException e) {
-            output.warn("Ignored Exception:", e);
-        } catch (InvocationTargetException e) {
-            Throwable cause = e.getCause();
-            while (cause.getCause() != null) {
-                cause = cause.getCause();
-            }
-            output.warn("Can't extract module name from {}:", artifactPath.getFileName(), cause);
+            return ConcurrentSupport.await(scan);
+        } catch (InterruptedException e) {
+            return null;
+        } catch (Exception e) {
+            output.warn("Can't extract module name:", e);
+            return null;
         }
-        return moduleDescriptor;
     }
 
     @Override
@@ -164,25 +173,4 @@ public final class ModuleDescriptorExtractingSink implements Artifacts.Sink, Dep
             return null;
         };
     }
-
-    private static class ModuleDescriptorImpl implements ModuleDescriptor {
-        String name;
-        boolean automatic = true;
-        String moduleNameSource;
-
-        @Override
-        public String name() {
-            return name;
-        }
-
-        @Override
-        public boolean automatic() {
-            return automatic;
-        }
-
-        @Override
-        public String moduleNameSource() {
-            return moduleNameSource;
-        }
-    }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.module.InvalidModuleDescriptorException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Scanner of module descriptors, that opens a JAR only once: the ZIP central directory is read once, and
+ * {@code module-info.class} (honoring multi-release JARs) or {@code META-INF/MANIFEST.MF} is parsed directly. If none
+ * of them declares the module name, the name is derived from file name, using same rules as JDK does for automatic
+ * modules. Results of last {@value #CACHE_SIZE} scanned files are cached, keyed by the checksum and name of file (as
+ * same content under other name may derive other module name): the {@code .sha1} file lying next to the file (as
+ * present in local repository) is used, and if not present, the path, size and last modified timestamp of file are
+ * used instead, as calculating checksum would require to read whole file.
+ */
+public final class ModuleDescriptorScanner {
+    private ModuleDescriptorScanner() {}
+
+    private static final String MODULE_INFO = "module-info.class";
+
+    private static final String VERSIONS = "META-INF/versions/";
+
+    private static final Pattern DASH_VERSION = Pattern.compile("-(\\d+(\\.|$))");
+
+    private static final Pattern NON_ALPHANUM = Pattern.compile("[^A-Za-z0-9]");
+
+    private static final Pattern REPEATING_DOTS = Pattern.compile("(\\.)(\\1)+");
+
+    private static final Pattern LEADING_DOTS = Pattern.compile("^\\.");
+
+    private static final Pattern TRAILING_DOTS = Pattern.compile("\\.$");
+
+    private static final int CACHE_SIZE = 10_000;
+
+    private static final Map<String, Optional<ModuleDescriptorExtractingSink.ModuleDescriptor>> CACHE =
+            Collections.synchronizedMap(new LruCache());
+
+    private static final class LruCache
+            extends LinkedHashMap<String, Optional<ModuleDescriptorExtractingSink.ModuleDescriptor>> {
+        private LruCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<String, Optional<ModuleDescriptorExtractingSink.ModuleDescriptor>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    }
+
+    /**
+     * Scans the JAR file or exploded directory for module descriptor, returns {@code null} if path is not a JAR, or
+     * is a directory without {@code module-info.class}.
+     */
+    public static ModuleDescriptorExtractingSink.ModuleDescriptor scan(Path path) throws IOException {
+        requireNonNull(path, "path");
+        if (Files.isDirectory(path)) {
+            // exploded directories are not cached, as they are usually subject of change
+            return scanDirectory(path);
+        }
+        String key = cacheKey(path);
+        if (key == null) {
+            return null;
+        }
+        Optional<ModuleDescriptorExtractingSink.ModuleDescriptor> result = CACHE.get(key);
+        if (result == null) {
+            result = Optional.ofNullable(scanJar(path));
+            CACHE.put(key, result);
+        }
+        return result.orElse(null);
+    }
+
+    private static String cacheKey(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        if (!attributes.isRegularFile() || !path.getFileName().toString().endsWith(".jar")) {
+            return null;
+        }
+        Path sha1 = path.resolveSibling(path.getFileName() + ".sha1");
+        if (Files.isRegularFile(sha1)) {
+            String checksum = new String(Files.readAllBytes(sha1), StandardCharsets.US_ASCII).trim();
+            int space = checksum.indexOf(' ');
+            if (space > 0) {
+                checksum = checksum.substring(0, space);
+            }
+            if (checksum.length() == 40) {
+                return "sha1:" + checksum + ":" + path.getFileName();
+            }
+        }
+        return path.toAbsolutePath() + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+    }
+
+    private static ModuleDescriptorExtractingSink.ModuleDescriptor scanDirectory(Path path) throws IOException {
+        Path moduleInfo = path.resolve(MODULE_INFO);
+        if (!Files.isRegularFile(moduleInfo)) {
+            return null;
+        }
+        try (InputStream inputStream = Files.newInputStream(moduleInfo)) {
+            return explicit(inputStream);
+        }
+    }
+
+    private static ModuleDescriptorExtractingSink.ModuleDescriptor scanJar(Path path) throws IOException {
+        try (ZipFile zipFile = new ZipFile(path.toFile())) {
+            Manifest manifest = null;
+            ZipEntry manifestEntry = zipFile.getEntry("META-INF/MANIFEST.MF");
+            if (manifestEntry != null) {
+                try (InputStream inputStream = zipFile.getInputStream(manifestEntry)) {
+                    manifest = new Manifest(inputStream);
+                }
+            }
+            ZipEntry moduleInfo = moduleInfoEntry(zipFile, manifest);
+            if (moduleInfo != null) {
+                try (InputStream inputStream = zipFile.getInputStream(moduleInfo)) {
+                    return explicit(inputStream);
+                }
+            }
+            if (manifest != null) {
+                String name = manifest.getMainAttributes().getValue("Automatic-Module-Name");
+                if (name != null) {
+                    return new Descriptor(name, true, "MANIFEST");
+                }
+            }
+            return new Descriptor(automaticModuleName(path.getFileName().toString()), true, "FILENAME");
+        }
+    }
+
+    private static ZipEntry moduleInfoEntry(ZipFile zipFile, Manifest manifest) {
+        if (manifest != null
+                && Boolean.parseBoolean(manifest.getMainAttributes().getValue(Attributes.Name.MULTI_RELEASE))) {
+            // the versioned descriptor of highest version not newer than the running JVM wins
+            for (int version = Runtime.version().feature(); version >= 9; version--) {
+                ZipEntry versioned = zipFile.getEntry(VERSIONS + version + "/" + MODULE_INFO);
+                if (versioned != null) {
+                    return versioned;
+                }
+            }
+        }
+        return zipFile.getEntry(MODULE_INFO);
+    }
+
+    private static ModuleDescriptorExtractingSink.ModuleDescriptor explicit(InputStream inputStream)
+            throws IOException {
+        try {
+            return new Descriptor(java.lang.module.ModuleDescriptor.read(inputStream).name(), false, null);
+        } catch (InvalidModuleDescriptorException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Derives the automatic module name out of JAR file name, as JDK {@code ModuleFinder} does.
+     */
+    public static String automaticModuleName(String fileName) throws IOException {
+        requireNonNull(fileName, "fileName");
+        String name = fileName.endsWith(".jar") ? fileName.substring(0, fileName.length() - 4) : fileName;
+        Matcher matcher = DASH_VERSION.matcher(name);
+        if (matcher.find()) {
+            name = name.substring(0, matcher.start());
+        }
+        name = NON_ALPHANUM.matcher(name).replaceAll(".");
+        name = REPEATING_DOTS.matcher(name).replaceAll(".");
+        name = LEADING_DOTS.matcher(name).replaceAll("");
+        name = TRAILING_DOTS.matcher(name).replaceAll("");
+        if (name.isEmpty()) {
+            throw new IOException("Unable to derive module name from " + fileName);
+        }
+        try {
+            return java.lang.module.ModuleDescriptor.newAutomaticModule(name).build().name();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unable to derive module name from " + fileName + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Descriptor implements ModuleDescriptorExtractingSink.ModuleDescriptor {
+        private final String name;
+        private final boolean automatic;
+        private final String moduleNameSource;
+
+        private Descriptor(String name, boolean automatic, String moduleNameSource) {
+            this.name = requireNonNull(name, "name");
+            this.automatic = automatic;
+            this.moduleNameSource = moduleNameSource;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean automatic() {
+            return automatic;
+        }
+
+        @Override
+        public String moduleNameSource() {
+            return moduleNameSource;
+        }
+    }
+}
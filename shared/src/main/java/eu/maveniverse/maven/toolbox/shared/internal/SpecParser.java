@@ -237,6 +237,8 @@ public final class SpecParser {
                 if (Character.isAlphabetic(ch)
                         || Character.isDigit(ch)
                         || '*' == ch
+                        || '?' == ch
+                        || '_' == ch
                         || ':' == ch
                         || '.' == ch
                         || '-' == ch
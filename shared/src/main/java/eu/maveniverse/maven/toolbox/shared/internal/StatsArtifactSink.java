@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static eu.maveniverse.maven.toolbox.shared.internal.ToolboxCommandoImpl.humanReadableByteCountBin;
+import static java.util.Objects.requireNonNull;
+
+import eu.maveniverse.maven.toolbox.shared.output.Output;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Statistics sink, that is safe to receive artifacts concurrently: it uses lock-free structures only, and defers all
+ * the sorting to {@link #close()}. Reports count and size totals, breakdowns by groupId, extension and classifier,
+ * size percentiles and histogram, and the largest artifacts.
+ */
+public final class StatsArtifactSink implements Artifacts.Sink {
+    private static final String NONE = "(none)";
+
+    private static final int[] PERCENTILES = {50, 90, 99};
+
+    private final int level;
+    private final int topN;
+    private final Output output;
+    private final ConcurrentLinkedQueue<Artifact> seen;
+    private final ConcurrentLinkedQueue<Sized> sized;
+    private final LongAdder count;
+    private final LongAdder size;
+    private final AtomicLongArray histogram;
+    private final ConcurrentHashMap<String, Bucket> byGroupId;
+    private final ConcurrentHashMap<String, Bucket> byExtension;
+    private final ConcurrentHashMap<String, Bucket> byClassifier;
+
+    StatsArtifactSink(int level, int topN, Output output) {
+        if (topN < 1) {
+            throw new IllegalArgumentException("topN must be greater than zero");
+        }
+        this.level = level;
+        this.topN = topN;
+        this.output = requireNonNull(output, "output");
+        this.seen = new ConcurrentLinkedQueue<>();
+        this.sized = new ConcurrentLinkedQueue<>();
+        this.count = new LongAdder();
+        this.size = new LongAdder();
+        // bucket i holds sizes in range [2^(i-1), 2^i), bucket 0 holds empty files
+        this.histogram = new AtomicLongArray(Long.SIZE + 1);
+        this.byGroupId = new ConcurrentHashMap<>();
+        this.byExtension = new ConcurrentHashMap<>();
+        this.byClassifier = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void accept(Artifact artifact) throws IOException {
+        requireNonNull(artifact, "artifact");
+        seen.add(artifact);
+        count.increment();
+        long artifactSize = -1;
+        Path path = artifact.getFile() != null ? artifact.getFile().toPath() : null;
+        String inventorySize = artifact.getProperty(LocalRepositoryInventory.PROPERTY_SIZE, null);
+        if (inventorySize != null) {
+            // size recorded by local repository inventory, spare the file system access
+            artifactSize = Long.parseLong(inventorySize);
+        } else if (path != null) {
+            try {
+                artifactSize = Files.size(path);
+            } catch (NoSuchFileException e) {
+                // not present
+            }
+        }
+        if (artifactSize >= 0) {
+            size.add(artifactSize);
+            sized.add(new Sized(artifact, artifactSize));
+            histogram.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(artifactSize));
+        }
+        long bucketSize = Math.max(artifactSize, 0);
+        byGroupId.computeIfAbsent(artifact.getGroupId(), k -> new Bucket()).add(bucketSize);
+        byExtension.computeIfAbsent(artifact.getExtension(), k -> new Bucket()).add(bucketSize);
+        String classifier = artifact.getClassifier().isEmpty() ? NONE : artifact.getClassifier();
+        byClassifier.computeIfAbsent(classifier, k -> new Bucket()).add(bucketSize);
+    }
+
+    /**
+     * Returns the accepted artifacts, in acceptance order.
+     */
+    public List<Artifact> getSeenArtifacts() {
+        return new ArrayList<>(seen);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long size() {
+        return size.sum();
+    }
+
+    /**
+     * Returns the size at given percentile (nearest-rank) of artifacts having file, or -1 if there are none.
+     */
+    public long percentile(int percentile) {
+        if (percentile < 1 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in range 1..100");
+        }
+        long[] sizes = sortedSizes();
+        return percentile(sizes, percentile);
+    }
+
+    /**
+     * Returns the largest artifacts (at most topN of them), largest first.
+     */
+    public Map<Artifact, Long> largest() {
+        List<Sized> list = new ArrayList<>(sized);
+        list.sort(Comparator.comparingLong((Sized s) -> s.size).reversed());
+        return list.stream()
+                .limit(topN)
+                .collect(Collectors.toMap(s -> s.artifact, s -> s.size, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    @Override
+    public void close() {
+        String indent = String.join("", Collections.nCopies(level, "  "));
+        output.tell("{}------------------------------", indent);
+        long[] sizes = sortedSizes();
+        if (sizes.length > 0) {
+            StringBuilder percentiles = new StringBuilder();
+            for (int percentile : PERCENTILES) {
+                percentiles
+                        .append("p")
+                        .append(percentile)
+                        .append(" ")
+                        .append(humanReadableByteCountBin(percentile(sizes, percentile)))
+                        .append(", ");
+            }
+            percentiles.append("max ").append(humanReadableByteCountBin(sizes[sizes.length - 1]));
+            output.tell("{}Sizes: {}", indent, percentiles);
+            output.tell("{}Size histogram:", indent);
+            for (int i = 0; i < histogram.length(); i++) {
+                long bucketCount = histogram.get(i);
+                if (bucketCount > 0) {
+                    output.tell("{}  {} {}", indent, bucketLabel(i), bucketCount);
+                }
+            }
+            report(indent, "groupId", byGroupId);
+            report(indent, "extension", byExtension);
+            report(indent, "classifier", byClassifier);
+            output.tell("{}Largest artifacts:", indent);
+            for (Map.Entry<Artifact, Long> entry : largest().entrySet()) {
+                output.tell("{}  {} ({})", indent, entry.getKey(), humanReadableByteCountBin(entry.getValue()));
+            }
+            output.tell("{}------------------------------", indent);
+        }
+        output.doTell("{}Total of {} artifacts ({})", indent, count(), humanReadableByteCountBin(size()));
+        output.tell("{}------------------------------", indent);
+    }
+
+    private void report(String indent, String name, ConcurrentHashMap<String, Bucket> buckets) {
+        List<Map.Entry<String, Bucket>> entries = new ArrayList<>(buckets.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, Bucket> e) -> e.getValue().size.sum())
+                .reversed()
+                .thenComparing(Map.Entry::getKey));
+        output.tell("{}By {}:", indent, name);
+        for (Map.Entry<String, Bucket> entry : entries.subList(0, Math.min(topN, entries.size()))) {
+            output.tell(
+                    "{}  {}: {} artifacts ({})",
+                    indent,
+                    entry.getKey(),
+                    entry.getValue().count.sum(),
+                    humanReadableByteCountBin(entry.getValue().size.sum()));
+        }
+        if (entries.size() > topN) {
+            output.tell("{}  ... and {} more", indent, entries.size() - topN);
+        }
+    }
+
+    private long[] sortedSizes() {
+        long[] sizes = sized.stream().mapToLong(s -> s.size).toArray();
+        Arrays.sort(sizes);
+        return sizes;
+    }
+
+    private static long percentile(long[] sortedSizes, int percentile) {
+        if (sortedSizes.length == 0) {
+            return -1;
+        }
+        // ceil(percentile * length / 100) in integer arithmetic, as floating point one may be off by one
+        int rank = (int) (((long) percentile * sortedSizes.length + 99) / 100);
+        return sortedSizes[Math.max(rank, 1) - 1];
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket == 0) {
+            return "empty:";
+        }
+        return bucketBound(bucket - 1) + " .. " + bucketBound(bucket) + ":";
+    }
+
+    private static String bucketBound(int bit) {
+        return bit >= Long.SIZE - 1 ? "max" : humanReadableByteCountBin(1L << bit);
+    }
+
+    private static final class Bucket {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder size = new LongAdder();
+
+        private void add(long size) {
+            this.count.increment();
+            this.size.add(size);
+        }
+    }
+
+    private static final class Sized {
+        private final Artifact artifact;
+        private final long size;
+
+        private Sized(Artifact artifact, long size) {
+            this.artifact = artifact;
+            this.size = size;
+        }
+    }
+}
@@ -62,11 +62,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
 import org.apache.maven.search.api.MAVEN;
@@ -81,7 +83,6 @@ import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.collection.CollectResult;
 import org.eclipse.aether.graph.Dependency;
-import org.eclipse.aether.graph.DependencyFilter;
 import org.eclipse.aether.graph.DependencyNode;
 import org.eclipse.aether.graph.DependencyVisitor;
 import org.eclipse.aether.metadata.Metadata;
@@ -92,10 +93,9 @@ import org.eclipse.aether.resolution.ArtifactResult;
 import org.eclipse.aether.resolution.DependencyResult;
 import org.eclipse.aether.resolution.VersionRangeResolutionException;
 import org.eclipse.aether.util.ChecksumUtils;
+import org.eclipse.aether.util.ConfigUtils;
 import org.eclipse.aether.util.artifact.ArtifactIdUtils;
 import org.eclipse.aether.util.artifact.SubArtifact;
-import org.eclipse.aether.util.graph.visitor.CloningDependencyVisitor;
-import org.eclipse.aether.util.graph.visitor.FilteringDependencyVisitor;
 import org.eclipse.aether.util.graph.visitor.PathRecordingDependencyVisitor;
 import org.eclipse.aether.util.graph.visitor.PreorderNodeListGenerator;
 import org.eclipse.aether.util.graph.visitor.TreeDependencyVisitor;
@@ -107,6 +107,34 @@ import org.eclipse.aether.version.VersionConstraint;
 import org.eclipse.aether.version.VersionScheme;
 
 public class ToolboxCommandoImpl implements ToolboxCommando {
+    /**
+     * Config property: the count of resolution roots processed concurrently by commands accepting multiple roots,
+     * like {@link #resolveTransitive(ResolutionScope, Collection, boolean, boolean, boolean, Sink)} and
+     * {@link #copyTransitive(ResolutionScope, Collection, Sink)}. Results are still emitted in order of roots.
+     * Default is 1, roots are processed sequentially.
+     */
+    public static final String CONFIG_PROP_ROOTS_THREADS = "toolbox.roots.threads";
+
+    /**
+     * Config property: the count of threads to scan and delete local repository directories with, when evicting.
+     * Default is 4.
+     */
+    public static final String CONFIG_PROP_EVICT_THREADS = "toolbox.evict.threads";
+
+    /**
+     * Config property: whether local repositories should be read through their persistent inventory (see
+     * {@link LocalRepositoryInventory}), that is updated incrementally, instead of walking them fully. The update
+     * holds the whole inventory in memory, while the walk streams artifacts. Default is {@code false}.
+     */
+    public static final String CONFIG_PROP_LOCAL_REPOSITORY_INVENTORY = "toolbox.localRepository.inventory";
+
+    /**
+     * Config property: the journal file of recorder (resolved against basedir), that makes recording span multiple
+     * invocations: recording started in one invocation is continued by later ones, and recorded artifacts are
+     * available to them. Not set by default, recording lives only as long as the process.
+     */
+    public static final String CONFIG_PROP_RECORDER_JOURNAL = "toolbox.recorder.journal";
+
     private final Output output;
     private final Context context;
     private final RepositorySystemSession session;
@@ -114,6 +142,7 @@ public class ToolboxCommandoImpl implements ToolboxCommando {
     private final ToolboxSearchApiImpl toolboxSearchApi;
     private final ArtifactRecorderImpl artifactRecorder;
     private final ToolboxResolverImpl toolboxResolver;
+    private final int rootsThreads;
 
     private final Map<String, RemoteRepository> knownSearchRemoteRepositories;
 
@@ -122,7 +151,10 @@ public class ToolboxCommandoImpl implements ToolboxCommando {
         this.context = requireNonNull(context, "context");
         this.versionScheme = new GenericVersionScheme();
         this.toolboxSearchApi = new ToolboxSearchApiImpl(output);
-        this.artifactRecorder = new ArtifactRecorderImpl();
+        String recorderJournal =
+                ConfigUtils.getString(context.repositorySystemSession(), null, CONFIG_PROP_RECORDER_JOURNAL);
+        this.artifactRecorder = new ArtifactRecorderImpl(
+                recorderJournal != null ? context.basedir().resolve(recorderJournal) : null);
         DefaultRepositorySystemSession session = new DefaultRepositorySystemSession(context.repositorySystemSession());
         session.setRepositoryListener(
                 ChainedRepositoryListener.newInstance(session.getRepositoryListener(), artifactRecorder));
@@ -133,14 +165,36 @@ public class ToolboxCommandoImpl implements ToolboxCommando {
                 session,
                 new MavenModelReader(context),
                 context.remoteRepositories(),
-                versionScheme);
+                versionScheme,
+                ArtifactDescriptorCache.create(
+                        output,
+                        session,
+                        context.mavenUserHome().basedir().resolve("toolbox").resolve("descriptors"),
+                        profiles(context.contextOverrides())),
+                VersionsCache.get(
+                        output,
+                        session,
+                        versionScheme,
+                        context.mavenUserHome().basedir().resolve("toolbox").resolve("versions")));
+        this.rootsThreads = ConfigUtils.getInteger(session, 1, CONFIG_PROP_ROOTS_THREADS);
         this.knownSearchRemoteRepositories = Collections.unmodifiableMap(createKnownSearchRemoteRepositories());
     }
 
+    private static List<String> profiles(ContextOverrides contextOverrides) {
+        ArrayList<String> result = new ArrayList<>();
+        contextOverrides.getActiveProfileIds().forEach(p -> result.add("+" + p));
+        contextOverrides.getInactiveProfileIds().forEach(p -> result.add("-" + p));
+        return result;
+    }
+
     public Path basedir() {
         return context.basedir();
     }
 
+    public Path mavenUserHome() {
+        return context.mavenUserHome().basedir();
+    }
+
     public Output output() {
         return output;
     }
@@ -161,6 +215,17 @@ public class ToolboxCommandoImpl implements ToolboxCommando {
         return artifactRecorder;
     }
 
+    /**
+     * Returns the source of all artifacts in given local repository, processing directories using at most
+     * {@code threads} threads.
+     */
+    public Artifacts.Source localRepositorySource(Path localRepository, int threads) {
+        if (ConfigUtils.getBoolean(session, false, CONFIG_PROP_LOCAL_REPOSITORY_INVENTORY)) {
+            return LocalRepositoryInventory.inventory(localRepository, threads);
+        }
+        return LocalRepositorySource.local(localRepository, threads);
+    }
+
     protected Map<String, RemoteRepository> createKnownSearchRemoteRepositories() {
         Map<String, RemoteRepository> rr = new HashMap<>();
         rr.put(
@@ -480,30 +545,34 @@ public class ToolboxCommandoImpl implements ToolboxCommando {
     public Result<List<Artifact>> copyTransitive(
             ResolutionScope resolutionScope, Collection<ResolutionRoot> resolutionRoots, Sink<Artifact> sink)
             throws Exception {
-        ArrayList<Artifact> artifactResults = new ArrayList<>();
-        for (ResolutionRoot resolutionRoot : resolutionRoots) {
-            output.suggest("Resolving {}", resolutionRoot.getArtifact());
-            resolutionRoot = toolboxResolver.loadRoot(resolutionRoot);
-            DependencyResult dependencyResult = toolboxResolver.resolve(
-                    resolutionScope,
-                    resolutionRoot.getArtifact(),
-                    resolutionRoot.getDependencies(),
-                    resolutionRoot.getManagedDependencies());
-            artifactResults.addAll((resolutionRoot.isLoad()
-                            ? dependencyResult.getArtifactResults()
-                            : dependencyResult
-                                    .getArtifactResults()
-                                    .subList(
-                                            1,
-                                            dependencyResult
-                                                            .getArtifactResults()
-                                                            .size()
-                                                    - 1))
-                    .stream()
-                            .filter(ArtifactResult::isResolved)
-                            .map(ArtifactResult::getArtifact)
-                            .collect(Collectors.toList()));
+        ArrayList<Callable<List<Artifact>>> tasks = new ArrayList<>(resolutionRoots.size());
+        for (ResolutionRoot root : resolutionRoots) {
+            tasks.add(() -> {
+                output.suggest("Resolving {}", root.getArtifact());
+                ResolutionRoot resolutionRoot = toolboxResolver.loadRoot(root);
+                DependencyResult dependencyResult = toolboxResolver.resolve(
+                        resolutionScope,
+                        resolutionRoot.getArtifact(),
+                        resolutionRoot.getDependencies(),
+                        resolutionRoot.getManagedDependencies());
+                return (resolutionRoot.isLoad()
+                                ? dependencyResult.getArtifactResults()
+                                : dependencyResult
+                                        .getArtifactResults()
+                                        .subList(
+                                                1,
+                                                dependencyResult
+                                                                .getArtifactResults()
+                                                                .size()
+                                                        - 1))
+                        .stream()
+                                .filter(ArtifactResult::isResolved)
+                                .map(ArtifactResult::getArtifact)
+                                .collect(Collectors.toList());
+            });
         }
+        ArrayList<Artifact> artifactResults = new ArrayList<>();
+        ConcurrentSupport.invokeAll(rootsThreads, "toolbox-roots", tasks, artifactResults::addAll);
         return copy(artifactResults::stream, sink);
     }
 
@@ -625,6 +694,42 @@ public class ToolboxCommandoImpl implements ToolboxCommando {
         return result;
     }
 
+    @Override
+    public Result<Long> evict(
+            long budget, ResolutionScope resolutionScope, Collection<ResolutionRoot> pinnedRoots, boolean dryRun)
+            throws Exception {
+        Path localRepository = session.getLocalRepository().getBasedir().toPath().toAbsolutePath();
+        HashSet<Path> pinnedDirectories = new HashSet<>();
+        for (ResolutionRoot root : pinnedRoots) {
+            output.suggest("Pinning {}", root.getArtifact());
+            ResolutionRoot resolutionRoot = toolboxResolver.loadRoot(root);
+            DependencyResult dependencyResult = toolboxResolver.resolve(
+                    resolutionScope,
+                    resolutionRoot.getArtifact(),
+                    resolutionRoot.getDependencies(),
+                    resolutionRoot.getManagedDependencies());
+            for (ArtifactResult artifactResult : dependencyResult.getArtifactResults()) {
+                if (artifactResult.isResolved()) {
+                    pinnedDirectories.add(
+                            artifactResult.getArtifact().getFile().toPath().toAbsolutePath().getParent());
+                }
+            }
+        }
+        int threads = ConfigUtils.getInteger(session, 4, CONFIG_PROP_EVICT_THREADS);
+        EvictingSink evictingSink = EvictingSink.evicting(
+                output,
+                localRepository,
+                budget,
+                a -> pinnedDirectories.contains(a.getFile().toPath().toAbsolutePath().getParent()),
+                threads,
+                dryRun);
+        try (evictingSink;
+                Stream<Artifact> artifacts = localRepositorySource(localRepository, threads).get()) {
+            evictingSink.accept(artifacts);
+        }
+        return Result.success(evictingSink.getReclaimed());
+    }
+
     @Override
     public Result<Path> artifactPath(Artifact artifact, RemoteRepository repository) throws Exception {
         Result<Path> result;
@@ -712,86 +817,97 @@ public class ToolboxCommandoImpl implements ToolboxCommando {
             boolean signature,
             Sink<Artifact> sink)
             throws Exception {
-        ArtifactSinks.StatArtifactSink stat = ArtifactSinks.statArtifactSink(0, false, output);
+        StatsArtifactSink stat = ArtifactSinks.statsArtifactSink(0, 10, output);
         try (Sink<Artifact> artifactSink = ArtifactSinks.teeArtifactSink(sink, stat)) {
+            ArrayList<Callable<ResolvedRoot>> tasks = new ArrayList<>(resolutionRoots.size());
             for (ResolutionRoot resolutionRoot : resolutionRoots) {
-                doResolveTransitive(
-                        resolutionScope,
-                        resolutionRoot,
-                        sources,
-                        javadoc,
-                        signature,
-                        ArtifactSinks.teeArtifactSink(
-                                ArtifactSinks.nonClosingArtifactSink(artifactSink),
-                                ArtifactSinks.statArtifactSink(1, true, output)));
+                tasks.add(() -> doResolveTransitive(resolutionScope, resolutionRoot, sources, javadoc, signature));
             }
+            ConcurrentSupport.invokeAll(rootsThreads, "toolbox-roots", tasks, resolvedRoot -> {
+                try (Sink<Artifact> rootSink = ArtifactSinks.teeArtifactSink(
+                        ArtifactSinks.nonClosingArtifactSink(artifactSink),
+                        ArtifactSinks.statArtifactSink(1, true, output))) {
+                    rootSink.accept(resolvedRoot.artifacts);
+                    if (resolvedRoot.subartifacts != null) {
+                        rootSink.accept(resolvedRoot.subartifacts);
+                    }
+                }
+            });
         }
         return stat.getSeenArtifacts().isEmpty()
                 ? Result.failure("No artifacts")
                 : Result.success(stat.getSeenArtifacts());
     }
 
-    private void doResolveTransitive(
+    /**
+     * Outcome of transitive resolution of one root: resolved artifacts and (best effort) sub-artifacts, if asked for.
+     */
+    private static final class ResolvedRoot {
+        private final List<Artifact> artifacts;
+        private final List<Artifact> subartifacts;
+
+        private ResolvedRoot(List<Artifact> artifacts, List<Artifact> subartifacts) {
+            this.artifacts = artifacts;
+            this.subartifacts = subartifacts;
+        }
+    }
+
+    private ResolvedRoot doResolveTransitive(
             ResolutionScope resolutionScope,
             ResolutionRoot resolutionRoot,
             boolean sources,
             boolean javadoc,
-            boolean signature,
-            Sink<Artifact> sink)
+            boolean signature)
             throws Exception {
-        try (Sink<Artifact> artifactSink = sink) {
-            output.suggest("Resolving {}", resolutionRoot.getArtifact());
-            resolutionRoot = toolboxResolver.loadRoot(resolutionRoot);
-            DependencyResult dependencyResult = toolboxResolver.resolve(
-                    resolutionScope,
-                    resolutionRoot.getArtifact(),
-                    resolutionRoot.getDependencies(),
-                    resolutionRoot.getManagedDependencies());
-            List<ArtifactResult> adjustedResults = resolutionRoot.isLoad()
-                    ? dependencyResult.getArtifactResults()
-                    : (dependencyResult.getArtifactResults().size() == 1
-                            ? Collections.emptyList()
-                            : dependencyResult
-                                    .getArtifactResults()
-                                    .subList(
-                                            1,
-                                            dependencyResult
-                                                            .getArtifactResults()
-                                                            .size()
-                                                    - 1));
-            artifactSink.accept(
-                    adjustedResults.stream().map(ArtifactResult::getArtifact).collect(Collectors.toList()));
-
-            if (sources || javadoc || signature) {
-                HashSet<Artifact> subartifacts = new HashSet<>();
-                adjustedResults.stream().map(ArtifactResult::getArtifact).forEach(a -> {
-                    if (sources && a.getClassifier().isEmpty()) {
-                        subartifacts.add(new SubArtifact(a, "sources", "jar"));
-                    }
-                    if (javadoc && a.getClassifier().isEmpty()) {
-                        subartifacts.add(new SubArtifact(a, "javadoc", "jar"));
-                    }
-                    if (signature && !a.getExtension().endsWith(".asc")) {
-                        subartifacts.add(new SubArtifact(a, "*", "*.asc"));
-                    }
-                });
-                if (!subartifacts.isEmpty()) {
-                    output.suggest("Resolving (best effort) {}", subartifacts);
-                    try {
-                        List<ArtifactResult> subartifactResults = toolboxResolver.resolveArtifacts(subartifacts);
-                        artifactSink.accept(subartifactResults.stream()
-                                .map(ArtifactResult::getArtifact)
-                                .collect(Collectors.toList()));
-                    } catch (ArtifactResolutionException e) {
-                        // ignore, this is "best effort"
-                        artifactSink.accept(e.getResults().stream()
-                                .filter(ArtifactResult::isResolved)
-                                .map(ArtifactResult::getArtifact)
-                                .collect(Collectors.toList()));
-                    }
+        output.suggest("Resolving {}", resolutionRoot.getArtifact());
+        resolutionRoot = toolboxResolver.loadRoot(resolutionRoot);
+        DependencyResult dependencyResult = toolboxResolver.resolve(
+                resolutionScope,
+                resolutionRoot.getArtifact(),
+                resolutionRoot.getDependencies(),
+                resolutionRoot.getManagedDependencies());
+        List<ArtifactResult> adjustedResults = resolutionRoot.isLoad()
+                ? dependencyResult.getArtifactResults()
+                : (dependencyResult.getArtifactResults().size() == 1
+                        ? Collections.emptyList()
+                        : dependencyResult
+                                .getArtifactResults()
+                                .subList(
+                                        1,
+                                        dependencyResult.getArtifactResults().size() - 1));
+        List<Artifact> artifacts =
+                adjustedResults.stream().map(ArtifactResult::getArtifact).collect(Collectors.toList());
+        List<Artifact> subartifactResults = null;
+
+        if (sources || javadoc || signature) {
+            HashSet<Artifact> subartifacts = new HashSet<>();
+            artifacts.forEach(a -> {
+                if (sources && a.getClassifier().isEmpty()) {
+                    subartifacts.add(new SubArtifact(a, "sources", "jar"));
+                }
+                if (javadoc && a.getClassifier().isEmpty()) {
+                    subartifacts.add(new SubArtifact(a, "javadoc", "jar"));
+                }
+                if (signature && !a.getExtension().endsWith(".asc")) {
+                    subartifacts.add(new SubArtifact(a, "*", "*.asc"));
+                }
+            });
+            if (!subartifacts.isEmpty()) {
+                output.suggest("Resolving (best effort) {}", subartifacts);
+                try {
+                    subartifactResults = toolboxResolver.resolveArtifacts(subartifacts).stream()
+                            .map(ArtifactResult::getArtifact)
+                            .collect(Collectors.toList());
+                } catch (ArtifactResolutionException e) {
+                    // ignore, this is "best effort"
+                    subartifactResults = e.getResults().stream()
+                            .filter(ArtifactResult::isResolved)
+                            .map(ArtifactResult::getArtifact)
+                            .collect(Collectors.toList());
                 }
             }
         }
+        return new ResolvedRoot(artifacts, subartifactResults);
     }
 
     @Override
@@ -810,22 +926,7 @@ public class ToolboxCommandoImpl implements ToolboxCommando {
                 root.getDependencies(),
                 root.getManagedDependencies(),
                 verboseTree);
-        CloningDependencyVisitor cloningDependencyVisitor = new CloningDependencyVisitor();
-        collectResult.getRoot().accept(new FilteringDependencyVisitor(cloningDependencyVisitor, new DependencyFilter() {
-            @Override
-            public boolean accept(DependencyNode node, List<DependencyNode> parents) {
-                return node.getDependency() == null || dependencyMatcher.test(node.getDependency());
-            }
-        }));
-
-        DependencyNode clone = cloningDependencyVisitor.getRootNode();
-        clone.accept(new DependencyGraphDumper(
-                output::tell,
-                DependencyGraphDumper.defaultsWith(DependencyGraphDumper.premanagedProperties()),
-                output.tool(
-                        DependencyGraphDecorators.TreeDecorator.class, DependencyGraphDecorators.defaultSupplier())));
-        collectResult.setRoot(clone);
-        return Result.success(collectResult);
+        return Result.success(dumpFilteredTree(collectResult, dependencyMatcher));
     }
 
     @Override
@@ -846,22 +947,26 @@ public class ToolboxCommandoImpl implements ToolboxCommando {
                 root.getManagedDependencies(),
                 maxLevel,
                 verboseTree);
-        CloningDependencyVisitor cloningDependencyVisitor = new CloningDependencyVisitor();
-        collectResult.getRoot().accept(new FilteringDependencyVisitor(cloningDependencyVisitor, new DependencyFilter() {
-            @Override
-            public boolean accept(DependencyNode node, List<DependencyNode> parents) {
-                return node.getDependency() == null || dependencyMatcher.test(node.getDependency());
-            }
-        }));
-
-        DependencyNode clone = cloningDependencyVisitor.getRootNode();
-        clone.accept(new DependencyGraphDumper(
-                output::tell,
-                DependencyGraphDumper.defaultsWith(DependencyGraphDumper.premanagedProperties()),
-                output.tool(
-                        DependencyGraphDecorators.TreeDecorator.class, DependencyGraphDecorators.defaultSupplier())));
-        collectResult.setRoot(clone);
-        return Result.success(collectResult);
+        return Result.success(dumpFilteredTree(collectResult, dependencyMatcher));
+    }
+
+    /**
+     * Dumps the filtered tree in one pass (without copying the graph), and returns the result with root replaced
+     * by lazy filtered view of it.
+     */
+    private CollectResult dumpFilteredTree(CollectResult collectResult, DependencyMatcher dependencyMatcher) {
+        Predicate<DependencyNode> filter =
+                node -> node.getDependency() == null || dependencyMatcher.test(node.getDependency());
+        DependencyNode root = collectResult.getRoot();
+        FilteringDependencyNode.streaming(root, filter)
+                .accept(new DependencyGraphDumper(
+                        output::tell,
+                        DependencyGraphDumper.defaultsWith(DependencyGraphDumper.premanagedProperties()),
+                        output.tool(
+                                DependencyGraphDecorators.TreeDecorator.class,
+                                DependencyGraphDecorators.defaultSupplier())));
+        collectResult.setRoot(FilteringDependencyNode.view(root, filter));
+        return collectResult;
     }
 
     @Override
@@ -1294,10 +1399,11 @@ public class ToolboxCommandoImpl implements ToolboxCommando {
     public Result<Map<Artifact, List<Version>>> versions(
             String context, Source<Artifact> artifactSource, Predicate<Version> versionPredicate) throws Exception {
         List<Artifact> artifacts = artifactSource.get().collect(Collectors.toList());
-        HashMap<Artifact, List<Version>> result = new HashMap<>();
+        LinkedHashMap<Artifact, List<Version>> result = new LinkedHashMap<>();
         output.marker(Output.Verbosity.NORMAL)
                 .emphasize("Checking newest versions of {} ({})")
                 .say(context, artifacts.size());
+        toolboxResolver.prefetchVersions(artifacts);
         for (Artifact artifact : artifacts) {
             List<Version> newer = toolboxResolver.findNewerVersions(artifact, versionPredicate);
             result.put(artifact, newer);
@@ -22,16 +22,20 @@ import eu.maveniverse.maven.toolbox.shared.ToolboxResolver;
 import eu.maveniverse.maven.toolbox.shared.output.Output;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -68,6 +72,7 @@ import org.eclipse.aether.resolution.VersionRangeRequest;
 import org.eclipse.aether.resolution.VersionRangeResolutionException;
 import org.eclipse.aether.resolution.VersionRangeResult;
 import org.eclipse.aether.resolution.VersionResolutionException;
+import org.eclipse.aether.util.ConfigUtils;
 import org.eclipse.aether.util.artifact.ArtifactIdUtils;
 import org.eclipse.aether.util.artifact.JavaScopes;
 import org.eclipse.aether.util.graph.manager.DependencyManagerUtils;
@@ -79,6 +84,11 @@ import org.eclipse.aether.version.VersionConstraint;
 import org.eclipse.aether.version.VersionScheme;
 
 public class ToolboxResolverImpl implements ToolboxResolver {
+    /**
+     * Config property: the count of threads used to read imported BOMs concurrently, default is 4.
+     */
+    public static final String CONFIG_PROP_DM_THREADS = "toolbox.dm.threads";
+
     private static final String CTX_TOOLBOX = "toolbox";
     private final Output output;
     private final RepositorySystem repositorySystem;
@@ -87,6 +97,10 @@ public class ToolboxResolverImpl implements ToolboxResolver {
     private final ProjectLocator projectLocator;
     private final List<RemoteRepository> remoteRepositories;
     private final VersionScheme versionScheme;
+    private final ArtifactDescriptorCache artifactDescriptorCache;
+    private final VersionsCache versionsCache;
+    private final CollectResultCache collectResultCache;
+    private final int dmThreads;
 
     public ToolboxResolverImpl(
             Output output,
@@ -94,7 +108,9 @@ public class ToolboxResolverImpl implements ToolboxResolver {
             RepositorySystemSession session,
             MavenModelReader mavenModelReader,
             List<RemoteRepository> remoteRepositories,
-            VersionScheme versionScheme) {
+            VersionScheme versionScheme,
+            ArtifactDescriptorCache artifactDescriptorCache,
+            VersionsCache versionsCache) {
         this.output = requireNonNull(output, "output");
         this.repositorySystem = requireNonNull(repositorySystem, "repositorySystem");
         this.session = requireNonNull(session, "session");
@@ -102,12 +118,53 @@ public class ToolboxResolverImpl implements ToolboxResolver {
         this.projectLocator = new ProjectLocatorImpl(session, mavenModelReader);
         this.remoteRepositories = requireNonNull(remoteRepositories, "remoteRepositories");
         this.versionScheme = requireNonNull(versionScheme, "versionScheme");
+        this.artifactDescriptorCache = requireNonNull(artifactDescriptorCache, "artifactDescriptorCache");
+        this.versionsCache = requireNonNull(versionsCache, "versionsCache");
+        this.collectResultCache = CollectResultCache.get(output, session);
+        this.dmThreads = ConfigUtils.getInteger(session, 4, CONFIG_PROP_DM_THREADS);
     }
 
     @Override
     public ArtifactDescriptorResult readArtifactDescriptor(Artifact artifact) throws ArtifactDescriptorException {
         ArtifactDescriptorRequest artifactDescriptorRequest =
                 new ArtifactDescriptorRequest(artifact, remoteRepositories, CTX_TOOLBOX);
+        if (!artifactDescriptorCache.isCacheable(artifact)) {
+            return repositorySystem.readArtifactDescriptor(session, artifactDescriptorRequest);
+        }
+        ArtifactDescriptorResult result = artifactDescriptorCache.get(artifactDescriptorRequest);
+        if (result == null) {
+            result = readAndCacheArtifactDescriptor(artifactDescriptorRequest);
+        }
+        return result;
+    }
+
+    /**
+     * Builds the descriptor out of one model read, and caches it along with POM files of model lineage (session caches
+     * may serve parents from memory, so they are taken from lineage). Relocated artifacts and models that cannot be
+     * read are left to the repository system, and are not cached.
+     */
+    private ArtifactDescriptorResult readAndCacheArtifactDescriptor(ArtifactDescriptorRequest artifactDescriptorRequest)
+            throws ArtifactDescriptorException {
+        Artifact artifact = artifactDescriptorRequest.getArtifact();
+        try {
+            ModelResponse modelResponse = readModel(artifact);
+            Model model = modelResponse.getEffectiveModel();
+            if (model.getDistributionManagement() == null
+                    || model.getDistributionManagement().getRelocation() == null) {
+                ArtifactDescriptorResult result = modelResponse.toArtifactDescriptorResult(model);
+                LinkedHashSet<Path> poms = new LinkedHashSet<>();
+                for (String lineage : modelResponse.getLineage()) {
+                    Model current = modelResponse.getLineageModel(lineage);
+                    if (current.getPomFile() != null) {
+                        poms.add(current.getPomFile().toPath().toAbsolutePath());
+                    }
+                }
+                artifactDescriptorCache.put(artifactDescriptorRequest, result, poms);
+                return result;
+            }
+        } catch (ArtifactDescriptorException | ArtifactResolutionException | VersionResolutionException e) {
+            output.chatter("Not caching descriptor of {}: {}", artifact, e.getMessage());
+        }
         return repositorySystem.readArtifactDescriptor(session, artifactDescriptorRequest);
     }
 
@@ -479,6 +536,20 @@ public class ToolboxResolverImpl implements ToolboxResolver {
             throw new NullPointerException("one of rootDependency or root must be non-null");
         }
 
+        List<Object> key = Arrays.asList(
+                resolutionScope,
+                rootDependency,
+                root,
+                dependencies,
+                managedDependencies,
+                remoteRepositories,
+                dirtyMaxLevel,
+                verbose);
+        CollectResult cached = collectResultCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
         DefaultRepositorySystemSession session = new DefaultRepositorySystemSession(this.session);
         session.setConfigProperty(DependencyManagerUtils.CONFIG_PROP_VERBOSE, true);
         if (verbose) {
@@ -521,7 +592,7 @@ public class ToolboxResolverImpl implements ToolboxResolver {
                 result.getRoot().getChildren().removeAll(childrenToRemove);
             }
         }
-        return result;
+        return collectResultCache.put(key, result);
     }
 
     private CollectResult doCollectDm(
@@ -550,11 +621,13 @@ public class ToolboxResolverImpl implements ToolboxResolver {
         DefaultDependencyNode rootNode =
                 new DefaultDependencyNode(rootDependency != null ? rootDependency.getArtifact() : root);
         result.setRoot(rootNode);
-        HashMap<String, LinkedHashSet<String>> encounters = new HashMap<>();
-        doCollectDmRecursive(rootNode, encounters);
+        Map<String, List<Dependency>> managedDependenciesByBom =
+                readBomsManagedDependencies(rootNode.getArtifact());
+        LinkedHashMap<String, LinkedHashSet<String>> encounters = new LinkedHashMap<>();
+        doCollectDmRecursive(rootNode, managedDependenciesByBom, encounters);
         Map<String, LinkedHashSet<String>> conflicts = encounters.entrySet().stream()
                 .filter(e -> e.getValue().size() > 1)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
         if (!conflicts.isEmpty()) {
             output.warn("DM conflicts discovered:");
             for (Map.Entry<String, LinkedHashSet<String>> entry : conflicts.entrySet()) {
@@ -568,10 +641,52 @@ public class ToolboxResolverImpl implements ToolboxResolver {
         return result;
     }
 
-    private void doCollectDmRecursive(DefaultDependencyNode currentRoot, Map<String, LinkedHashSet<String>> encounters)
+    /**
+     * Reads the managed dependencies of root and all the BOMs it imports (transitively), level by level, each level
+     * concurrently. Each BOM is read only once, no matter how many times it is imported.
+     */
+    private Map<String, List<Dependency>> readBomsManagedDependencies(Artifact root)
+            throws ArtifactDescriptorException, ArtifactResolutionException, VersionResolutionException {
+        HashMap<String, List<Dependency>> result = new HashMap<>();
+        List<Artifact> level = Collections.singletonList(root);
+        while (!level.isEmpty()) {
+            ArrayList<Callable<List<Dependency>>> tasks = new ArrayList<>(level.size());
+            for (Artifact bom : level) {
+                tasks.add(() -> readManagedDependencies(bom));
+            }
+            List<List<Dependency>> levelResults;
+            try {
+                levelResults = ConcurrentSupport.invokeAll(dmThreads, "toolbox-dm", tasks);
+            } catch (ArtifactDescriptorException
+                    | ArtifactResolutionException
+                    | VersionResolutionException
+                    | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            LinkedHashMap<String, Artifact> nextLevel = new LinkedHashMap<>();
+            for (int i = 0; i < level.size(); i++) {
+                result.put(ArtifactIdUtils.toId(level.get(i)), levelResults.get(i));
+                for (Dependency managedDependency : levelResults.get(i)) {
+                    if ("import".equals(managedDependency.getScope())) {
+                        String id = ArtifactIdUtils.toId(managedDependency.getArtifact());
+                        if (!result.containsKey(id)) {
+                            nextLevel.putIfAbsent(id, managedDependency.getArtifact());
+                        }
+                    }
+                }
+            }
+            nextLevel.keySet().removeAll(result.keySet());
+            level = new ArrayList<>(nextLevel.values());
+        }
+        return result;
+    }
+
+    private List<Dependency> readManagedDependencies(Artifact artifact)
             throws ArtifactDescriptorException, ArtifactResolutionException, VersionResolutionException {
         ModelResponse modelResponse = mavenModelReader.readModel(ModelRequest.builder()
-                .setArtifact(currentRoot.getArtifact())
+                .setArtifact(artifact)
                 .setRequestContext(CTX_TOOLBOX)
                 .build());
 
@@ -590,9 +705,17 @@ public class ToolboxResolverImpl implements ToolboxResolver {
             }
         }
 
-        for (Dependency managedDependency : modelResponse
+        return modelResponse
                 .toArtifactDescriptorResult(modelResponse.interpolateModel(rawModel))
-                .getManagedDependencies()) {
+                .getManagedDependencies();
+    }
+
+    private void doCollectDmRecursive(
+            DefaultDependencyNode currentRoot,
+            Map<String, List<Dependency>> managedDependenciesByBom,
+            Map<String, LinkedHashSet<String>> encounters) {
+        for (Dependency managedDependency :
+                managedDependenciesByBom.get(ArtifactIdUtils.toId(currentRoot.getArtifact()))) {
             DefaultDependencyNode child = new DefaultDependencyNode(managedDependency);
             currentRoot.getChildren().add(child);
             String key = ArtifactIdUtils.toVersionlessId(managedDependency.getArtifact());
@@ -600,7 +723,7 @@ public class ToolboxResolverImpl implements ToolboxResolver {
                     .computeIfAbsent(key, k -> new LinkedHashSet<>())
                     .add(managedDependency.getArtifact().getVersion());
             if ("import".equals(child.getDependency().getScope())) {
-                doCollectDmRecursive(child, encounters);
+                doCollectDmRecursive(child, managedDependenciesByBom, encounters);
             }
         }
     }
@@ -673,9 +796,10 @@ public class ToolboxResolverImpl implements ToolboxResolver {
         String version;
         VersionConstraint versionConstraint = versionScheme.parseVersionConstraint(artifact.getVersion());
         if (versionConstraint.getRange() != null) {
-            VersionRangeResult versionRangeResult = repositorySystem.resolveVersionRange(
-                    session, new VersionRangeRequest(artifact, remoteRepositories, CTX_TOOLBOX));
-            version = artifactVersionSelector.apply(artifact, versionRangeResult.getVersions());
+            List<Version> versions = allVersions(artifact).stream()
+                    .filter(versionConstraint::containsVersion)
+                    .collect(Collectors.toList());
+            version = artifactVersionSelector.apply(artifact, versions);
         } else {
             version = versionConstraint.getVersion().toString();
         }
@@ -685,44 +809,80 @@ public class ToolboxResolverImpl implements ToolboxResolver {
     @Override
     public Version findNewestVersion(Artifact artifact, Predicate<Version> filter)
             throws VersionRangeResolutionException {
-        VersionRangeRequest rangeRequest = new VersionRangeRequest();
-        rangeRequest.setArtifact(new DefaultArtifact(
-                artifact.getGroupId(),
-                artifact.getArtifactId(),
-                artifact.getClassifier(),
-                artifact.getExtension(),
-                "[0,)"));
-        rangeRequest.setRepositories(remoteRepositories);
-        rangeRequest.setRequestContext(CTX_TOOLBOX);
-        VersionRangeResult result = repositorySystem.resolveVersionRange(session, rangeRequest);
-        Version highest = result.getHighestVersion();
-        if (filter.test(highest)) {
-            return highest;
-        } else {
-            for (int idx = result.getVersions().size() - 1; idx >= 0; idx--) {
-                highest = result.getVersions().get(idx);
-                if (filter.test(highest)) {
-                    return highest;
-                }
+        List<Version> versions = allVersions(artifact);
+        for (int idx = versions.size() - 1; idx >= 0; idx--) {
+            Version version = versions.get(idx);
+            if (filter.test(version)) {
+                return version;
             }
-            return null;
         }
+        return null;
     }
 
     @Override
     public List<Version> findNewerVersions(Artifact artifact, Predicate<Version> filter)
             throws VersionRangeResolutionException {
-        VersionRangeRequest rangeRequest = new VersionRangeRequest();
-        rangeRequest.setArtifact(new DefaultArtifact(
-                artifact.getGroupId(),
-                artifact.getArtifactId(),
-                artifact.getClassifier(),
-                artifact.getExtension(),
-                artifact.getVersion().contains(",") ? artifact.getVersion() : "(" + artifact.getVersion() + ",)"));
-        rangeRequest.setRepositories(remoteRepositories);
-        rangeRequest.setRequestContext(CTX_TOOLBOX);
-        VersionRangeResult result = repositorySystem.resolveVersionRange(session, rangeRequest);
-        return result.getVersions().stream().filter(filter).collect(Collectors.toList());
+        Predicate<Version> newer;
+        try {
+            if (artifact.getVersion().contains(",")) {
+                newer = versionScheme.parseVersionConstraint(artifact.getVersion())::containsVersion;
+            } else {
+                Version current = versionScheme.parseVersion(artifact.getVersion());
+                newer = v -> v.compareTo(current) > 0;
+            }
+        } catch (InvalidVersionSpecificationException e) {
+            throw new VersionRangeResolutionException(
+                    new VersionRangeResult(new VersionRangeRequest(artifact, remoteRepositories, CTX_TOOLBOX)),
+                    e.getMessage(),
+                    e);
+        }
+        return allVersions(artifact).stream()
+                .filter(newer)
+                .filter(filter)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Prefetches available versions of all distinct GAs of given artifacts, that are not yet present in
+     * {@link VersionsCache}, in one batch (see {@link VersionsCache#prefetch(RepositorySystem, RepositorySystemSession,
+     * List, String, RequestTrace, Collection)}).
+     */
+    public void prefetchVersions(Collection<Artifact> artifacts) {
+        requireNonNull(artifacts, "artifacts");
+        versionsCache.prefetch(
+                repositorySystem,
+                session,
+                remoteRepositories,
+                CTX_TOOLBOX,
+                RequestTrace.newChild(null, this),
+                artifacts);
+    }
+
+    /**
+     * Returns all the available versions (sorted ascending) of given artifact GA. Results are cached in session
+     * scoped {@link VersionsCache}, so each GA is resolved only once.
+     */
+    private List<Version> allVersions(Artifact artifact) throws VersionRangeResolutionException {
+        String key = versionsCache.key(artifact.getGroupId(), artifact.getArtifactId(), remoteRepositories);
+        List<Version> versions = versionsCache.get(key);
+        if (versions == null) {
+            VersionRangeRequest rangeRequest = new VersionRangeRequest();
+            rangeRequest.setArtifact(new DefaultArtifact(
+                    artifact.getGroupId(),
+                    artifact.getArtifactId(),
+                    artifact.getClassifier(),
+                    artifact.getExtension(),
+                    "[0,)"));
+            rangeRequest.setRepositories(remoteRepositories);
+            rangeRequest.setRequestContext(CTX_TOOLBOX);
+            VersionRangeResult result = repositorySystem.resolveVersionRange(session, rangeRequest);
+            versions = result.getVersions();
+            // do not cache transient failures
+            if (!versions.isEmpty() || result.getExceptions().isEmpty()) {
+                versionsCache.put(key, versions);
+            }
+        }
+        return versions;
     }
 
     @Override
@@ -742,7 +902,7 @@ public class ToolboxResolverImpl implements ToolboxResolver {
         }
 
         HashSet<String> processedGAs = new HashSet<>();
-        ArrayList<Artifact> result = new ArrayList<>();
+        ArrayList<Artifact> blueprints = new ArrayList<>();
         List<MetadataResult> results = repositorySystem.resolveMetadata(session, requests);
         for (MetadataResult res : results) {
             org.eclipse.aether.metadata.Metadata metadata = res.getMetadata();
@@ -757,22 +917,28 @@ public class ToolboxResolverImpl implements ToolboxResolver {
                             pluginGroupMetadata.getPlugins();
                     for (org.apache.maven.artifact.repository.metadata.Plugin plugin : plugins) {
                         if (processedGAs.add(metadata.getGroupId() + ":" + plugin.getArtifactId())) {
-                            Artifact blueprint =
-                                    new DefaultArtifact(metadata.getGroupId(), plugin.getArtifactId(), "jar", "0");
-                            Version newestVersion = findNewestVersion(
-                                    blueprint, ArtifactVersionMatcher.not(ArtifactVersionMatcher.snapshot()));
-                            if (newestVersion != null) {
-                                result.add(new DefaultArtifact(
-                                        blueprint.getGroupId(),
-                                        blueprint.getArtifactId(),
-                                        blueprint.getExtension(),
-                                        newestVersion.toString()));
-                            }
+                            blueprints.add(
+                                    new DefaultArtifact(metadata.getGroupId(), plugin.getArtifactId(), "jar", "0"));
                         }
                     }
                 }
             }
         }
+
+        // second phase: all plugin versions metadata in one batch, then pick newest in processedGAs order
+        prefetchVersions(blueprints);
+        ArrayList<Artifact> result = new ArrayList<>();
+        for (Artifact blueprint : blueprints) {
+            Version newestVersion =
+                    findNewestVersion(blueprint, ArtifactVersionMatcher.not(ArtifactVersionMatcher.snapshot()));
+            if (newestVersion != null) {
+                result.add(new DefaultArtifact(
+                        blueprint.getGroupId(),
+                        blueprint.getArtifactId(),
+                        blueprint.getExtension(),
+                        newestVersion.toString()));
+            }
+        }
         return result;
     }
 }
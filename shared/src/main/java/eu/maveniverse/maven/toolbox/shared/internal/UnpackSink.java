@@ -18,14 +18,18 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
-import org.apache.commons.compress.archivers.jar.JarArchiveEntry;
-import org.apache.commons.compress.archivers.jar.JarArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
@@ -54,6 +58,39 @@ public final class UnpackSink implements Artifacts.Sink {
             boolean allowEntryOverwrite,
             boolean dryRun)
             throws IOException {
+        return unpack(output, path, artifactRootMapper, allowEntryOverwrite, 1, dryRun);
+    }
+
+    /**
+     * Same as {@link #unpack(Output, Path, Function, boolean, boolean)} but extracts entries of ZIP archives (and
+     * JARs) using at most {@code threads} workers.
+     */
+    public static UnpackSink unpack(
+            Output output,
+            Path path,
+            Function<Artifact, String> artifactRootMapper,
+            boolean allowEntryOverwrite,
+            int threads,
+            boolean dryRun)
+            throws IOException {
+        return unpack(output, path, artifactRootMapper, allowEntryOverwrite, n -> true, threads, dryRun);
+    }
+
+    /**
+     * Same as {@link #unpack(Output, Path, Function, boolean, int, boolean)} but unpacks only entries whose names
+     * are accepted by {@code entryFilter} (see {@link GlobSupport#filter(java.util.Collection,
+     * java.util.Collection)}). Entries of ZIP archives (and JARs) are filtered using central directory, so skipped
+     * entries are not even read.
+     */
+    public static UnpackSink unpack(
+            Output output,
+            Path path,
+            Function<Artifact, String> artifactRootMapper,
+            boolean allowEntryOverwrite,
+            Predicate<String> entryFilter,
+            int threads,
+            boolean dryRun)
+            throws IOException {
         return new UnpackSink(
                 output,
                 path,
@@ -62,8 +99,10 @@ public final class UnpackSink implements Artifacts.Sink {
                 a -> a,
                 artifactRootMapper,
                 Function.identity(),
+                entryFilter,
                 true,
                 allowEntryOverwrite,
+                threads,
                 dryRun);
     }
 
@@ -75,10 +114,13 @@ public final class UnpackSink implements Artifacts.Sink {
     private final Function<Artifact, Artifact> artifactMapper;
     private final Function<Artifact, String> artifactRootMapper;
     private final Function<String, String> fileNameMapper;
+    private final Predicate<String> entryFilter;
     private final boolean allowRootOverwrite;
     private final boolean allowEntryOverwrite;
     private final boolean dryRun;
     private final HashSet<Path> writtenPaths;
+    private final int threads;
+    private final ExecutorService executor;
 
     /**
      * Creates a directory sink.
@@ -89,9 +131,12 @@ public final class UnpackSink implements Artifacts.Sink {
      * @param artifactMapper The artifact mapper, that may re-map artifact.
      * @param artifactRootMapper The artifact root mapper, that decides where is root of unpacking for given artifact.
      * @param fileNameMapper The file name mapper.
+     * @param entryFilter The filter of entry names, only accepted entries are unpacked.
      * @param allowRootOverwrite Does sink allow use of same roots for unpack operations.
      * @param allowEntryOverwrite Does sink allow unpacked entry overwrites. Tip: you usually do not want to allow,
      *                            as that means you have some overlap in unpacked archives.
+     * @param threads The count of workers extracting entries of ZIP archives, if 1, entries are extracted on calling
+     *                thread.
      * @throws IOException In case of IO problem.
      */
     private UnpackSink(
@@ -102,12 +147,17 @@ public final class UnpackSink implements Artifacts.Sink {
             Function<Artifact, Artifact> artifactMapper,
             Function<Artifact, String> artifactRootMapper,
             Function<String, String> fileNameMapper,
+            Predicate<String> entryFilter,
             boolean allowRootOverwrite,
             boolean allowEntryOverwrite,
+            int threads,
             boolean dryRun)
             throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be greater than zero");
+        }
         this.output = requireNonNull(output, "output");
-        this.directory = requireNonNull(directory, "directory").toAbsolutePath();
+        this.directory = requireNonNull(directory, "directory").toAbsolutePath().normalize();
         if (Files.exists(directory) && !Files.isDirectory(directory)) {
             throw new IllegalArgumentException("directory must not exists, or must be a directory");
         }
@@ -123,10 +173,13 @@ public final class UnpackSink implements Artifacts.Sink {
         this.artifactMapper = requireNonNull(artifactMapper, "artifactMapper");
         this.artifactRootMapper = requireNonNull(artifactRootMapper, "artifactRootMapper");
         this.fileNameMapper = requireNonNull(fileNameMapper, "fileNameMapper");
+        this.entryFilter = requireNonNull(entryFilter, "entryFilter");
         this.allowRootOverwrite = allowRootOverwrite;
         this.allowEntryOverwrite = allowEntryOverwrite;
         this.dryRun = dryRun;
         this.writtenPaths = new HashSet<>();
+        this.threads = threads;
+        this.executor = threads > 1 && !dryRun ? ConcurrentSupport.executor(threads, "toolbox-unpack") : null;
     }
 
     public Path getDirectory() {
@@ -141,7 +194,7 @@ public final class UnpackSink implements Artifacts.Sink {
             output.chatter("  matched");
             String targetName = artifactRootMapper.apply(artifactMapper.apply(artifact));
             output.chatter("  mapped to name {}", targetName);
-            Path target = directory.resolve(targetName).toAbsolutePath();
+            Path target = directory.resolve(targetName).normalize();
             if (!target.startsWith(directory)) {
                 throw new IOException("Path escape prevented; check mappings");
             }
@@ -149,12 +202,7 @@ public final class UnpackSink implements Artifacts.Sink {
                 throw new IOException("Root overwrite prevented; check mappings");
             }
             switch (artifact.getExtension()) {
-                case "jar": {
-                    if (!dryRun) {
-                        unjar(target, artifact.getFile().toPath());
-                    }
-                    break;
-                }
+                case "jar":
                 case "zip": {
                     if (!dryRun) {
                         unzip(target, artifact.getFile().toPath());
@@ -193,6 +241,9 @@ public final class UnpackSink implements Artifacts.Sink {
         try (TarArchiveInputStream tar = new TarArchiveInputStream(input)) {
             TarArchiveEntry entry;
             while ((entry = tar.getNextEntry()) != null) {
+                if (!entryFilter.test(entry.getName())) {
+                    continue;
+                }
                 if (!tar.canReadEntryData(entry)) {
                     output.warn("Cannot read entry {}", entry.getName());
                     continue;
@@ -202,70 +253,123 @@ public final class UnpackSink implements Artifacts.Sink {
                     Files.createDirectories(f);
                 } else {
                     Files.createDirectories(f.getParent());
-                    mayCopy(f, tar, entry.getLastModifiedTime());
+                    copy(f, tar, entry.getLastModifiedTime(), true);
                 }
             }
         }
     }
 
+    /**
+     * Unzips using ZIP central directory: entries are filtered, checked and their directories are created on calling
+     * thread, then file entries (in their physical order) are split among workers and extracted concurrently.
+     */
     private void unzip(Path target, Path zipFile) throws IOException {
         try (ZipFile zip = ZipFile.builder().setFile(zipFile.toFile()).get()) {
-            Enumeration<ZipArchiveEntry> zipArchiveEntryEnumeration = zip.getEntries();
+            ArrayList<ZipArchiveEntry> entries = new ArrayList<>();
+            ArrayList<Path> files = new ArrayList<>();
+            HashSet<Path> filesSet = new HashSet<>();
+            TreeSet<Path> directories = new TreeSet<>();
+            Enumeration<ZipArchiveEntry> zipArchiveEntryEnumeration = zip.getEntriesInPhysicalOrder();
             ZipArchiveEntry entry;
             while (zipArchiveEntryEnumeration.hasMoreElements()) {
                 entry = zipArchiveEntryEnumeration.nextElement();
+                if (!entryFilter.test(entry.getName())) {
+                    continue;
+                }
                 if (!zip.canReadEntryData(entry)) {
                     output.warn("Cannot read entry {}", entry.getName());
                     continue;
                 }
                 Path f = mapToOutput(target, entry.getName());
                 if (entry.isDirectory()) {
-                    Files.createDirectories(f);
+                    directories.add(f);
                 } else {
-                    Files.createDirectories(f.getParent());
-                    mayCopy(f, zip.getInputStream(entry), entry.getLastModifiedTime());
+                    if (!allowEntryOverwrite && (!filesSet.add(f) || Files.exists(f))) {
+                        throw new IOException("Entry overwrite prevented; overlap in archives");
+                    }
+                    directories.add(f.getParent());
+                    entries.add(entry);
+                    files.add(f);
                 }
             }
+            for (Path directory : directories) {
+                Files.createDirectories(directory);
+            }
+            if (executor == null || entries.size() < 2) {
+                for (int i = 0; i < entries.size(); i++) {
+                    extractEntry(zip, entries.get(i), files.get(i));
+                }
+            } else {
+                extract(zip, entries, files);
+            }
         }
     }
 
-    private void unjar(Path target, Path jarFile) throws IOException {
-        try (JarArchiveInputStream jar =
-                new JarArchiveInputStream(new BufferedInputStream(Files.newInputStream(jarFile)))) {
-            JarArchiveEntry entry;
-            while ((entry = jar.getNextEntry()) != null) {
-                if (!jar.canReadEntryData(entry)) {
-                    output.warn("Cannot read entry {}", entry.getName());
-                    continue;
+    private void extract(ZipFile zip, List<ZipArchiveEntry> entries, List<Path> files) throws IOException {
+        AtomicBoolean failed = new AtomicBoolean(false);
+        int chunks = Math.min(entries.size(), threads * 4);
+        ArrayList<Future<?>> futures = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = entries.size() * chunk / chunks;
+            int to = entries.size() * (chunk + 1) / chunks;
+            futures.add(executor.submit(() -> {
+                for (int i = from; i < to && !failed.get(); i++) {
+                    extractEntry(zip, entries.get(i), files.get(i));
                 }
-                Path f = mapToOutput(target, entry.getName());
-                if (entry.isDirectory()) {
-                    Files.createDirectories(f);
+                return null;
+            }));
+        }
+        // all chunks are awaited, as archive must not be closed while some worker is still reading it
+        IOException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                ConcurrentSupport.await(future);
+            } catch (Exception e) {
+                failed.set(true);
+                IOException ex = e instanceof IOException ? (IOException) e : new IOException(e);
+                if (failure == null) {
+                    failure = ex;
                 } else {
-                    Files.createDirectories(f.getParent());
-                    mayCopy(f, jar, entry.getLastModifiedTime());
+                    failure.addSuppressed(ex);
                 }
             }
         }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Extracts ZIP file entry, overwrites were already checked using central directory.
+     */
+    private void extractEntry(ZipFile zip, ZipArchiveEntry entry, Path target) throws IOException {
+        try (InputStream inputStream = zip.getInputStream(entry)) {
+            copy(target, inputStream, entry.getLastModifiedTime(), false);
+        }
     }
 
     private Path mapToOutput(Path target, String entryName) throws IOException {
-        Path f = target.resolve(fileNameMapper.apply(entryName)).toAbsolutePath();
+        Path f = target.resolve(fileNameMapper.apply(entryName)).normalize();
         if (!f.startsWith(target)) {
             throw new IOException("Path escape prevented");
         }
         return f;
     }
 
-    private void mayCopy(Path target, InputStream inputStream, FileTime fileTime) throws IOException {
-        if (Files.exists(target) && !allowEntryOverwrite) {
+    /**
+     * Writes out the stream (it is not closed) into target file, and sets its last modified time, if known. If
+     * {@code checkOverwrite} is set, and target exists while entry overwrite is not allowed, fails instead.
+     */
+    private void copy(Path target, InputStream inputStream, FileTime fileTime, boolean checkOverwrite)
+            throws IOException {
+        if (checkOverwrite && !allowEntryOverwrite && Files.exists(target)) {
             throw new IOException("Entry overwrite prevented; overlap in archives");
         }
         try (OutputStream o = Files.newOutputStream(target)) {
             inputStream.transferTo(o);
-            if (fileTime != null) {
-                Files.setLastModifiedTime(target, fileTime);
-            }
+        }
+        if (fileTime != null) {
+            Files.setLastModifiedTime(target, fileTime);
         }
     }
 
@@ -297,5 +401,9 @@ public final class UnpackSink implements Artifacts.Sink {
     }
 
     @Override
-    public void close() {}
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import eu.maveniverse.maven.toolbox.shared.output.Output;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.RequestTrace;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.metadata.DefaultMetadata;
+import org.eclipse.aether.metadata.Metadata;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.MetadataRequest;
+import org.eclipse.aether.resolution.MetadataResult;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
+import org.eclipse.aether.util.ConfigUtils;
+import org.eclipse.aether.version.InvalidVersionSpecificationException;
+import org.eclipse.aether.version.Version;
+import org.eclipse.aether.version.VersionScheme;
+
+/**
+ * Cache of all available versions (sorted ascending) per GA and set of remote repositories. The cache lives in
+ * session data, hence is shared by all resolver instances using same session. Optionally, the cache may be
+ * persisted, making it usable across invocations. Entries expire after configured TTL.
+ */
+public final class VersionsCache {
+    /**
+     * Config property: entry TTL in seconds, default is one day (as Maven default "daily" update policy).
+     */
+    public static final String CONFIG_PROP_TTL = "toolbox.versionsCache.ttl";
+
+    /**
+     * Config property: whether cache is persisted, default is {@code false}.
+     */
+    public static final String CONFIG_PROP_PERSISTED = "toolbox.versionsCache.persisted";
+
+    /**
+     * Config property: the directory where persisted cache is stored, default is {@code toolbox/versions} directory in
+     * Maven user home.
+     */
+    public static final String CONFIG_PROP_DIRECTORY = "toolbox.versionsCache.directory";
+
+    private static final String SESSION_DATA_KEY = VersionsCache.class.getName();
+
+    /**
+     * Gets or creates session scoped versions cache.
+     */
+    public static VersionsCache get(
+            Output output, RepositorySystemSession session, VersionScheme versionScheme, Path defaultDirectory) {
+        requireNonNull(output, "output");
+        requireNonNull(session, "session");
+        requireNonNull(versionScheme, "versionScheme");
+        requireNonNull(defaultDirectory, "defaultDirectory");
+        Object cache = session.getData().get(SESSION_DATA_KEY);
+        if (cache == null) {
+            long ttl = TimeUnit.SECONDS.toMillis(ConfigUtils.getLong(session, 86400L, CONFIG_PROP_TTL));
+            Path directory = null;
+            if (ConfigUtils.getBoolean(session, false, CONFIG_PROP_PERSISTED)) {
+                String configured = ConfigUtils.getString(session, null, CONFIG_PROP_DIRECTORY);
+                directory = configured != null ? Paths.get(configured) : defaultDirectory;
+            }
+            VersionsCache candidate = new VersionsCache(output, versionScheme, ttl, directory);
+            if (session.getData().set(SESSION_DATA_KEY, null, candidate)) {
+                cache = candidate;
+            } else {
+                cache = session.getData().get(SESSION_DATA_KEY);
+            }
+        }
+        return (VersionsCache) cache;
+    }
+
+    /**
+     * Invalidates all cached versions of session, if any. To be invoked when artifacts are installed or deployed, as
+     * they may add versions. Persisted entries stored before invalidation are ignored as well.
+     */
+    public static void invalidate(RepositorySystemSession session) {
+        requireNonNull(session, "session");
+        Object cache = session.getData().get(SESSION_DATA_KEY);
+        if (cache != null) {
+            ((VersionsCache) cache).invalidate();
+        }
+    }
+
+    private static final class Entry {
+        private final long timestamp;
+        private final List<Version> versions;
+
+        private Entry(long timestamp, List<Version> versions) {
+            this.timestamp = timestamp;
+            this.versions = versions;
+        }
+    }
+
+    private final Output output;
+    private final VersionScheme versionScheme;
+    private final long ttl;
+    private final Path directory;
+    private final ConcurrentHashMap<String, Entry> entries;
+    private volatile long invalidated;
+
+    private VersionsCache(Output output, VersionScheme versionScheme, long ttl, Path directory) {
+        this.output = output;
+        this.versionScheme = versionScheme;
+        this.ttl = ttl;
+        this.directory = directory != null ? directory.toAbsolutePath() : null;
+        this.entries = new ConcurrentHashMap<>();
+        this.invalidated = 0;
+    }
+
+    /**
+     * Creates the key of GA and remote repositories.
+     */
+    public String key(String groupId, String artifactId, List<RemoteRepository> remoteRepositories) {
+        StringBuilder key = new StringBuilder();
+        key.append(groupId).append(':').append(artifactId);
+        for (RemoteRepository repository : remoteRepositories) {
+            key.append('|').append(repository.getId()).append("::").append(repository.getUrl());
+        }
+        return key.toString();
+    }
+
+    /**
+     * Returns cached sorted versions or {@code null} if not present or expired.
+     */
+    public List<Version> get(String key) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry == null && directory != null) {
+            entry = load(key);
+            if (entry != null) {
+                entries.putIfAbsent(key, entry);
+            }
+        }
+        if (entry == null || entry.timestamp < invalidated || now - entry.timestamp > ttl) {
+            return null;
+        }
+        return entry.versions;
+    }
+
+    /**
+     * Stores sorted versions.
+     */
+    public void put(String key, List<Version> versions) {
+        Entry entry = new Entry(System.currentTimeMillis(), Collections.unmodifiableList(new ArrayList<>(versions)));
+        entries.put(key, entry);
+        if (directory != null) {
+            store(key, entry);
+        }
+    }
+
+    /**
+     * Prefetches available versions of all distinct GAs of given artifacts, that are not yet present in this cache.
+     * All the metadata is resolved in one batch (all GAs from all remote repositories and local repository), similar
+     * to how Maven version range resolver does it for one GA. Requests are issued in order of first appearance of GA.
+     * The GAs where metadata resolution failed for any reason other than "not found" are left out, to have them
+     * resolved one by one later.
+     */
+    public void prefetch(
+            RepositorySystem repositorySystem,
+            RepositorySystemSession session,
+            List<RemoteRepository> remoteRepositories,
+            String requestContext,
+            RequestTrace trace,
+            Collection<Artifact> artifacts) {
+        requireNonNull(repositorySystem, "repositorySystem");
+        requireNonNull(session, "session");
+        requireNonNull(remoteRepositories, "remoteRepositories");
+        requireNonNull(artifacts, "artifacts");
+        LinkedHashMap<String, List<MetadataRequest>> requestsByKey = new LinkedHashMap<>();
+        for (Artifact artifact : artifacts) {
+            String key = key(artifact.getGroupId(), artifact.getArtifactId(), remoteRepositories);
+            if (!requestsByKey.containsKey(key) && get(key) == null) {
+                Metadata metadata = new DefaultMetadata(
+                        artifact.getGroupId(),
+                        artifact.getArtifactId(),
+                        "maven-metadata.xml",
+                        DefaultMetadata.Nature.RELEASE_OR_SNAPSHOT);
+                ArrayList<MetadataRequest> requests = new ArrayList<>();
+                requests.add(new MetadataRequest(metadata, null, requestContext).setTrace(trace));
+                for (RemoteRepository repository : remoteRepositories) {
+                    requests.add(new MetadataRequest(metadata, repository, requestContext)
+                            .setDeleteLocalCopyIfMissing(true)
+                            .setTrace(trace));
+                }
+                requestsByKey.put(key, requests);
+            }
+        }
+        if (requestsByKey.isEmpty()) {
+            return;
+        }
+        List<MetadataRequest> requests = requestsByKey.values().stream()
+                .flatMap(Collection::stream)
+                .collect(Collectors.toList());
+        output.chatter("Prefetching versions of {} GAs ({} metadata requests)", requestsByKey.size(), requests.size());
+        Map<String, Set<String>> versionsByGA = new HashMap<>();
+        Set<String> failedGAs = new HashSet<>();
+        for (MetadataResult result : repositorySystem.resolveMetadata(session, requests)) {
+            Metadata metadata = result.getRequest().getMetadata();
+            String ga = metadata.getGroupId() + ":" + metadata.getArtifactId();
+            Set<String> versions = versionsByGA.computeIfAbsent(ga, k -> new HashSet<>());
+            if (result.getException() != null && !(result.getException() instanceof MetadataNotFoundException)) {
+                failedGAs.add(ga);
+            } else if (result.getMetadata() != null
+                    && result.getMetadata().getFile() != null
+                    && result.getMetadata().getFile().isFile()) {
+                try (InputStream inputStream = Files.newInputStream(result.getMetadata().getFile().toPath())) {
+                    org.apache.maven.artifact.repository.metadata.Metadata gaMetadata =
+                            new MetadataXpp3Reader().read(inputStream, false);
+                    if (gaMetadata.getVersioning() != null) {
+                        versions.addAll(gaMetadata.getVersioning().getVersions());
+                    }
+                } catch (Exception e) {
+                    output.chatter("Could not read metadata {}", result.getMetadata(), e);
+                    failedGAs.add(ga);
+                }
+            }
+        }
+        for (Map.Entry<String, List<MetadataRequest>> entry : requestsByKey.entrySet()) {
+            Metadata metadata = entry.getValue().get(0).getMetadata();
+            String ga = metadata.getGroupId() + ":" + metadata.getArtifactId();
+            if (failedGAs.contains(ga)) {
+                continue;
+            }
+            ArrayList<Version> versions = new ArrayList<>();
+            for (String version : versionsByGA.getOrDefault(ga, Collections.emptySet())) {
+                try {
+                    versions.add(versionScheme.parseVersion(version));
+                } catch (InvalidVersionSpecificationException e) {
+                    output.chatter("Ignoring invalid version {} of {}", version, ga);
+                }
+            }
+            Collections.sort(versions);
+            put(entry.getKey(), versions);
+        }
+    }
+
+    /**
+     * Drops all cached versions, and makes persisted entries stored so far ignored.
+     */
+    public void invalidate() {
+        invalidated = System.currentTimeMillis();
+        entries.clear();
+    }
+
+    private Path file(String key) {
+        String hash = DigestSupport.sha1(key);
+        return directory.resolve(hash.substring(0, 2)).resolve(hash + ".versions");
+    }
+
+    private Entry load(String key) {
+        Path file = file(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!key.equals(reader.readLine())) {
+                return null;
+            }
+            long timestamp = Long.parseLong(reader.readLine());
+            ArrayList<Version> versions = new ArrayList<>();
+            String line = reader.readLine();
+            while (line != null) {
+                if (!line.isEmpty()) {
+                    versions.add(versionScheme.parseVersion(line));
+                }
+                line = reader.readLine();
+            }
+            return new Entry(timestamp, Collections.unmodifiableList(versions));
+        } catch (IOException | RuntimeException | InvalidVersionSpecificationException e) {
+            output.chatter("Could not read versions cache entry of {}", key, e);
+            return null;
+        }
+    }
+
+    private void store(String key, Entry entry) {
+        Path file = file(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.getParent()
+                    .resolve(file.getFileName() + "." + ThreadLocalRandom.current().nextInt() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(key);
+                writer.newLine();
+                writer.write(Long.toString(entry.timestamp));
+                writer.newLine();
+                for (Version version : entry.versions) {
+                    writer.write(version.toString());
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            output.warn("Could not write versions cache entry of {}", key, e);
+        }
+    }
+}
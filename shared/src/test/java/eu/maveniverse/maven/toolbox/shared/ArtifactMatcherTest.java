@@ -7,10 +7,14 @@
  */
 package eu.maveniverse.maven.toolbox.shared;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
@@ -32,6 +36,31 @@ public class ArtifactMatcherTest {
         assertFalse(matcher.test(artifact));
     }
 
+    @Test
+    void keyPrefixes() {
+        assertEquals(Collections.singleton(""), ArtifactMatcher.any().keyPrefixes());
+        assertEquals(Collections.singleton(""), ArtifactMatcher.artifact("*foo:*").keyPrefixes());
+        assertEquals(Collections.singleton("org.foo"), ArtifactMatcher.artifact("org.foo*").keyPrefixes());
+        assertEquals(Collections.singleton("org.foo:"), ArtifactMatcher.artifact("org.foo:*").keyPrefixes());
+        assertEquals(Collections.singleton("org.foo:ba"), ArtifactMatcher.artifact("org.foo:ba*:*").keyPrefixes());
+        assertEquals(Collections.singleton("org.foo:bar:"), ArtifactMatcher.artifact("org.foo:bar:*").keyPrefixes());
+        assertEquals(
+                Collections.singleton("org.foo:bar:"),
+                ArtifactMatcher.and(ArtifactMatcher.artifact("org.*"), ArtifactMatcher.artifact("org.foo:bar:*"))
+                        .keyPrefixes());
+        assertEquals(
+                new HashSet<>(Arrays.asList("org.foo:", "org.bar:")),
+                ArtifactMatcher.or(ArtifactMatcher.artifact("org.foo:*"), ArtifactMatcher.artifact("org.bar:*"))
+                        .keyPrefixes());
+        assertEquals(
+                Collections.singleton(""),
+                ArtifactMatcher.or(ArtifactMatcher.artifact("org.foo:*"), ArtifactMatcher.snapshot())
+                        .keyPrefixes());
+        assertEquals(
+                Collections.singleton(""),
+                ArtifactMatcher.not(ArtifactMatcher.artifact("org.foo:*")).keyPrefixes());
+    }
+
     @Test
     void composedAnd() {
         assertTrue(ArtifactMatcher.and(
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import eu.maveniverse.maven.toolbox.shared.output.NopOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactDescriptorRequest;
+import org.eclipse.aether.resolution.ArtifactDescriptorResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArtifactDescriptorCacheTest {
+    private static final RemoteRepository CENTRAL =
+            new RemoteRepository.Builder("central", "default", "https://repo.maven.apache.org/maven2/").build();
+
+    private static ArtifactDescriptorCache cache(Path directory, boolean enabled) {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setConfigProperty(ArtifactDescriptorCache.CONFIG_PROP_ENABLED, Boolean.toString(enabled));
+        session.setConfigProperty(ArtifactDescriptorCache.CONFIG_PROP_DIRECTORY, directory.toString());
+        return ArtifactDescriptorCache.create(NopOutput.INSTANCE, session, directory, Collections.emptyList());
+    }
+
+    private static ArtifactDescriptorRequest request(String gav, RemoteRepository repository) {
+        return new ArtifactDescriptorRequest(
+                new DefaultArtifact(gav), Collections.singletonList(repository), "toolbox");
+    }
+
+    private static ArtifactDescriptorResult result(ArtifactDescriptorRequest request) {
+        ArtifactDescriptorResult result = new ArtifactDescriptorResult(request);
+        result.setArtifact(request.getArtifact());
+        result.setDependencies(Arrays.asList(
+                new Dependency(
+                        new DefaultArtifact("g:d1:1"),
+                        "compile",
+                        null,
+                        Collections.singletonList(new Exclusion("x", "y", "*", "*"))),
+                new Dependency(new DefaultArtifact("g:d2:jar:tests:2"), "test", true)));
+        result.setManagedDependencies(
+                Collections.singletonList(new Dependency(new DefaultArtifact("g:m:pom:3"), "import")));
+        return result;
+    }
+
+    @Test
+    void disabled(@TempDir Path directory) {
+        ArtifactDescriptorCache cache = cache(directory, false);
+        assertFalse(cache.isEnabled());
+        assertFalse(cache.isCacheable(new DefaultArtifact("g:a:1")));
+        ArtifactDescriptorRequest request = request("g:a:1", CENTRAL);
+        cache.put(request, result(request), Collections.emptyList());
+        assertNull(cache.get(request));
+    }
+
+    @Test
+    void cacheable(@TempDir Path directory) {
+        ArtifactDescriptorCache cache = cache(directory, true);
+        assertTrue(cache.isCacheable(new DefaultArtifact("g:a:1")));
+        assertFalse(cache.isCacheable(new DefaultArtifact("g:a:1-SNAPSHOT")));
+        assertFalse(cache.isCacheable(new DefaultArtifact("g:a:[1,2)")));
+    }
+
+    @Test
+    void hitMissAndInvalidation(@TempDir Path directory) throws IOException {
+        Path pom = Files.write(directory.resolve("a-1.pom"), "<project/>".getBytes(StandardCharsets.UTF_8));
+        Path parent = Files.write(directory.resolve("p-1.pom"), "<project/>".getBytes(StandardCharsets.UTF_8));
+        ArtifactDescriptorCache cache = cache(directory.resolve("cache"), true);
+        ArtifactDescriptorRequest request = request("g:a:1", CENTRAL);
+
+        // miss
+        assertNull(cache.get(request));
+        cache.put(request, result(request), Arrays.asList(pom, parent));
+
+        // hit, also by another instance (another invocation)
+        ArtifactDescriptorResult cached = cache(directory.resolve("cache"), true).get(request);
+        assertNotNull(cached);
+        ArtifactDescriptorResult expected = result(request);
+        assertEquals(expected.getArtifact(), cached.getArtifact());
+        assertEquals(expected.getDependencies(), cached.getDependencies());
+        assertEquals(expected.getManagedDependencies(), cached.getManagedDependencies());
+
+        // miss: other repositories
+        assertNull(cache.get(request(
+                "g:a:1", new RemoteRepository.Builder("other", "default", "https://example.com/").build())));
+
+        // invalidation: contributing parent POM changed
+        Files.write(parent, "<project><modelVersion/></project>".getBytes(StandardCharsets.UTF_8));
+        assertNull(cache.get(request));
+
+        // invalidation: contributing POM removed
+        cache.put(request, result(request), Arrays.asList(pom, parent));
+        assertNotNull(cache.get(request));
+        Files.delete(pom);
+        assertNull(cache.get(request));
+    }
+}
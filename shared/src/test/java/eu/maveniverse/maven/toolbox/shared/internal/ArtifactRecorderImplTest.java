@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import eu.maveniverse.maven.toolbox.shared.ArtifactRecorder;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArtifactRecorderImplTest {
+    private final DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+    private final RemoteRepository central =
+            new RemoteRepository.Builder("central", "default", "https://repo.maven.apache.org/maven2/").build();
+
+    private void resolved(ArtifactRecorderImpl recorder, String gav, RemoteRepository repository) {
+        recorder.artifactResolved(new RepositoryEvent.Builder(session, RepositoryEvent.EventType.ARTIFACT_RESOLVED)
+                .setArtifact(new DefaultArtifact(gav).setFile(new File(gav.replace(':', '-'))))
+                .setRepository(repository)
+                .build());
+    }
+
+    @Test
+    void deduplicates() {
+        ArtifactRecorderImpl recorder = new ArtifactRecorderImpl();
+        resolved(recorder, "g:a:1.0", central);
+        assertEquals(0, recorder.recordedCount());
+
+        assertTrue(recorder.setActive(true));
+        resolved(recorder, "g:a:1.0", central);
+        resolved(recorder, "g:a:1.0", central);
+        resolved(recorder, "g:b:1.0", null);
+        assertEquals(2, recorder.recordedCount());
+        assertEquals(2, recorder.get().count());
+    }
+
+    @Test
+    void journal(@TempDir Path tmp) {
+        Path journal = tmp.resolve("recorder.journal");
+        ArtifactRecorderImpl first = new ArtifactRecorderImpl(journal);
+        assertTrue(first.setActive(true));
+        first.clear();
+        resolved(first, "g:a:1.0", central);
+        resolved(first, "g:b:1.0", null);
+
+        // continued by other process
+        ArtifactRecorderImpl second = new ArtifactRecorderImpl(journal);
+        assertTrue(second.isActive());
+        assertEquals(2, second.recordedCount());
+        resolved(second, "g:a:1.0", central);
+        resolved(second, "g:c:jar:sources:1.0", central);
+        assertTrue(second.setActive(false));
+
+        ArtifactRecorderImpl third = new ArtifactRecorderImpl(journal);
+        assertFalse(third.isActive());
+        assertEquals(3, third.recordedCount());
+        Map<RemoteRepository, List<Artifact>> recorded = third.getRecordedArtifacts();
+        assertEquals(
+                Arrays.asList("g:a:jar:1.0", "g:c:jar:sources:1.0"),
+                recorded.get(central).stream().map(Artifact::toString).collect(Collectors.toList()));
+        RemoteRepository sentinel = recorded.keySet().stream()
+                .filter(r -> "sentinel".equals(r.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertSame(ArtifactRecorder.SENTINEL, sentinel);
+        assertEquals(new File("g-b-1.0").getAbsoluteFile(), recorded.get(sentinel).get(0).getFile());
+    }
+}
@@ -65,6 +65,14 @@ public class ArtifactSinksTest {
                     ((DeployingSink) artifactSink).getRemoteRepository(),
                     new RemoteRepository.Builder("test", "default", "https://somewhere.com").build());
 
+            artifactSink = ArtifactSinks.build(
+                    properties, tc, false, "deploy(test::https://somewhere.com,4,some/deploy.resume)");
+            assertInstanceOf(DeployingSink.class, artifactSink);
+            assertEquals(((DeployingSink) artifactSink).getThreads(), 4);
+            assertEquals(
+                    ((DeployingSink) artifactSink).getResumeFile(),
+                    context.basedir().resolve("some/deploy.resume"));
+
             artifactSink = ArtifactSinks.build(properties, tc, false, "unpack(some/path)");
             assertInstanceOf(UnpackSink.class, artifactSink);
             assertEquals(
@@ -77,6 +85,32 @@ public class ArtifactSinksTest {
                     ((UnpackSink) artifactSink).getDirectory(),
                     context.basedir().resolve("some/path"));
 
+            artifactSink = ArtifactSinks.build(properties, tc, false, "unpack(some/path,ACE(),4)");
+            assertInstanceOf(UnpackSink.class, artifactSink);
+            assertEquals(
+                    ((UnpackSink) artifactSink).getDirectory(),
+                    context.basedir().resolve("some/path"));
+
+            artifactSink = ArtifactSinks.build(
+                    properties, tc, false, "unpack(some/path,includes(META-INF/**,**/*.so),excludes(**/*.SF))");
+            assertInstanceOf(UnpackSink.class, artifactSink);
+            assertEquals(
+                    ((UnpackSink) artifactSink).getDirectory(),
+                    context.basedir().resolve("some/path"));
+
+            artifactSink = ArtifactSinks.build(properties, tc, false, "bundle(some/bundle.zip,zip)");
+            assertInstanceOf(BundleSink.class, artifactSink);
+            assertEquals(
+                    ((BundleSink) artifactSink).getArchive(),
+                    context.basedir().resolve("some/bundle.zip"));
+
+            artifactSink = ArtifactSinks.build(properties, tc, false, "evict(10g)");
+            assertInstanceOf(EvictingSink.class, artifactSink);
+            assertEquals(((EvictingSink) artifactSink).getBudget(), 10L * 1024L * 1024L * 1024L);
+
+            artifactSink = ArtifactSinks.build(properties, tc, false, "stats(5)");
+            assertInstanceOf(StatsArtifactSink.class, artifactSink);
+
             artifactSink = ArtifactSinks.build(properties, tc, false, "repository(some/path)");
             assertInstanceOf(DirectorySink.class, artifactSink);
             assertEquals(
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import eu.maveniverse.maven.toolbox.shared.ArtifactNameMapper;
+import eu.maveniverse.maven.toolbox.shared.output.NopOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BundleSinkTest {
+    @Test
+    void zip(@TempDir Path source, @TempDir Path target) throws IOException {
+        Path jar = source.resolve("a1.jar");
+        Path pom = source.resolve("a1.pom");
+        Files.writeString(jar, "jar", StandardCharsets.UTF_8);
+        Files.writeString(pom, "pom", StandardCharsets.UTF_8);
+        Path archive = target.resolve("bundle.zip");
+        try (BundleSink sink = BundleSink.bundle(
+                NopOutput.INSTANCE, archive, BundleSink.Format.ZIP, ArtifactNameMapper.GACE(), false)) {
+            sink.accept(Arrays.asList(
+                    new DefaultArtifact("g:a1:1").setFile(jar.toFile()),
+                    new DefaultArtifact("g:a1:pom:1").setFile(pom.toFile())));
+        }
+
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            ZipEntry jarEntry = zipFile.getEntry("g.a1.jar");
+            assertNotNull(jarEntry);
+            assertEquals(ZipEntry.STORED, jarEntry.getMethod());
+            ZipEntry pomEntry = zipFile.getEntry("g.a1.pom");
+            assertNotNull(pomEntry);
+            assertEquals(ZipEntry.DEFLATED, pomEntry.getMethod());
+            try (InputStream inputStream = zipFile.getInputStream(zipFile.getEntry(".index"))) {
+                assertEquals(
+                        "g:a1:jar:1 >> g.a1.jar\ng:a1:pom:1 >> g.a1.pom\n",
+                        new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    void cleanup(@TempDir Path source, @TempDir Path target) throws IOException {
+        Path jar = source.resolve("a1.jar");
+        Files.writeString(jar, "jar", StandardCharsets.UTF_8);
+        Path archive = target.resolve("bundle.tar.gz");
+        try (BundleSink sink = BundleSink.bundle(
+                NopOutput.INSTANCE, archive, BundleSink.Format.TAR_GZ, ArtifactNameMapper.GACE(), false)) {
+            sink.accept(new DefaultArtifact("g:a1:1").setFile(jar.toFile()));
+            sink.cleanup(new IOException("boo"));
+        }
+        assertFalse(Files.exists(archive));
+        try (Stream<Path> files = Files.list(target)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
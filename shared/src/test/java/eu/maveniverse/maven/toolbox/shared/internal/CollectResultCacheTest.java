@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import eu.maveniverse.maven.toolbox.shared.output.NopOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.junit.jupiter.api.Test;
+
+public class CollectResultCacheTest {
+    private static DefaultRepositorySystemSession session(long maxNodes) {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setConfigProperty(CollectResultCache.CONFIG_PROP_MAX_NODES, Long.toString(maxNodes));
+        return session;
+    }
+
+    private static List<Object> key(String name) {
+        return Collections.singletonList(name);
+    }
+
+    /**
+     * Graph of root having given count of nodes in total: root with {@code nodes - 1} children.
+     */
+    private static CollectResult result(String name, int nodes) {
+        DefaultDependencyNode root =
+                new DefaultDependencyNode(new Dependency(new DefaultArtifact("g:" + name + ":1"), ""));
+        ArrayList<DependencyNode> children = new ArrayList<>();
+        for (int i = 1; i < nodes; i++) {
+            children.add(new DefaultDependencyNode(
+                    new Dependency(new DefaultArtifact("g:" + name + i + ":1"), "compile")));
+        }
+        root.setChildren(children);
+        CollectResult result = new CollectResult(new CollectRequest());
+        result.setRoot(root);
+        return result;
+    }
+
+    @Test
+    void sessionScoped() {
+        DefaultRepositorySystemSession session = session(10);
+        assertSame(
+                CollectResultCache.get(NopOutput.INSTANCE, session),
+                CollectResultCache.get(NopOutput.INSTANCE, session));
+    }
+
+    @Test
+    void lruEvictionByNodeCount() {
+        CollectResultCache cache = CollectResultCache.get(NopOutput.INSTANCE, session(10));
+        cache.put(key("a"), result("a", 4));
+        cache.put(key("b"), result("b", 4));
+        assertNotNull(cache.get(key("a")));
+        // 12 nodes do not fit: least recently used "b" goes
+        cache.put(key("c"), result("c", 4));
+        assertNull(cache.get(key("b")));
+        assertNotNull(cache.get(key("a")));
+        assertNotNull(cache.get(key("c")));
+        // replacing entry accounts for nodes of replaced one
+        cache.put(key("c"), result("c", 6));
+        assertNotNull(cache.get(key("a")));
+        assertEquals(6, cache.get(key("c")).getRoot().getChildren().size() + 1);
+        // graph bigger than cap is not cached, and evicts nothing
+        cache.put(key("d"), result("d", 11));
+        assertNull(cache.get(key("d")));
+        assertNotNull(cache.get(key("a")));
+        assertNotNull(cache.get(key("c")));
+    }
+
+    @Test
+    void disabled() {
+        CollectResultCache cache = CollectResultCache.get(NopOutput.INSTANCE, session(0));
+        CollectResult result = cache.put(key("a"), result("a", 1));
+        assertNotNull(result.getRoot());
+        assertNull(cache.get(key("a")));
+    }
+
+    @Test
+    void readOnlyView() {
+        CollectResultCache cache = CollectResultCache.get(NopOutput.INSTANCE, session(10));
+        CollectResult original = result("a", 3);
+        CollectResult stored = cache.put(key("a"), original);
+        CollectResult cached = cache.get(key("a"));
+        for (CollectResult result : List.of(stored, cached)) {
+            DependencyNode root = result.getRoot();
+            assertEquals(original.getRoot().getArtifact(), root.getArtifact());
+            assertEquals(2, root.getChildren().size());
+            assertThrows(UnsupportedOperationException.class, () -> root.getChildren().clear());
+            assertThrows(UnsupportedOperationException.class, () -> root.setChildren(new ArrayList<>()));
+            assertThrows(UnsupportedOperationException.class, () -> root.getChildren().get(0).setScope("test"));
+        }
+        assertEquals(2, original.getRoot().getChildren().size());
+        assertEquals("compile", original.getRoot().getChildren().get(0).getDependency().getScope());
+    }
+
+    @Test
+    void invalidate() {
+        DefaultRepositorySystemSession session = session(10);
+        // no cache yet: nothing to do
+        CollectResultCache.invalidate(session);
+        CollectResultCache cache = CollectResultCache.get(NopOutput.INSTANCE, session);
+        cache.put(key("a"), result("a", 2));
+        // as install/deploy sinks do, with session derived from the one cache belongs to
+        CollectResultCache.invalidate(new DefaultRepositorySystemSession(session));
+        assertNull(cache.get(key("a")));
+    }
+}
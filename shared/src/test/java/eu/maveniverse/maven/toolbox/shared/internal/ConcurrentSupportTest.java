@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentSupportTest {
+    @Test
+    void ordered() throws Exception {
+        ArrayList<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int value = i;
+            tasks.add(() -> {
+                // make earlier tasks finish later
+                Thread.sleep(20 - value);
+                return value;
+            });
+        }
+        List<Integer> expected = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+        assertEquals(expected, ConcurrentSupport.invokeAll(1, "test", tasks));
+        assertEquals(expected, ConcurrentSupport.invokeAll(4, "test", tasks));
+    }
+
+    @Test
+    void failure() {
+        ArrayList<Callable<Integer>> tasks = new ArrayList<>();
+        tasks.add(() -> 1);
+        tasks.add(() -> {
+            throw new IOException("boom");
+        });
+        tasks.add(() -> 3);
+        IOException e = assertThrows(IOException.class, () -> ConcurrentSupport.invokeAll(4, "test", tasks));
+        assertEquals("boom", e.getMessage());
+    }
+}
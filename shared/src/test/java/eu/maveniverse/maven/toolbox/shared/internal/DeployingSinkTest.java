@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import eu.maveniverse.maven.toolbox.shared.output.NopOutput;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.deployment.DeployRequest;
+import org.eclipse.aether.deployment.DeployResult;
+import org.eclipse.aether.deployment.DeploymentException;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DeployingSinkTest {
+    private static final RemoteRepository REPOSITORY =
+            new RemoteRepository.Builder("target", "default", "file:///nowhere").build();
+
+    /**
+     * Repository system that records deploy requests (as lists of artifact coordinates), and fails deploying any of
+     * the given GAVs.
+     */
+    private static RepositorySystem repositorySystem(List<List<String>> deployed, Set<String> failingGavs) {
+        return (RepositorySystem) Proxy.newProxyInstance(
+                DeployingSinkTest.class.getClassLoader(), new Class<?>[] {RepositorySystem.class}, (p, m, a) -> {
+                    if ("deploy".equals(m.getName())) {
+                        DeployRequest request = (DeployRequest) a[1];
+                        for (Artifact artifact : request.getArtifacts()) {
+                            String gav = artifact.getGroupId() + ":" + artifact.getArtifactId() + ":"
+                                    + artifact.getVersion();
+                            if (failingGavs.contains(gav)) {
+                                throw new DeploymentException("boom " + gav);
+                            }
+                        }
+                        synchronized (deployed) {
+                            deployed.add(request.getArtifacts().stream()
+                                    .map(Artifact::toString)
+                                    .collect(Collectors.toList()));
+                        }
+                        return new DeployResult(request);
+                    }
+                    throw new UnsupportedOperationException(m.getName());
+                });
+    }
+
+    private static List<Artifact> artifacts(Path directory) throws IOException {
+        ArrayList<Artifact> result = new ArrayList<>();
+        for (String coords : Arrays.asList(
+                "g:a:jar:1", "g:a:pom:1", "g:a:jar:2", "g:a:pom:2", "g:b:jar:1", "g:b:jar:sources:1", "g:b:pom:1")) {
+            Path file = Files.writeString(directory.resolve(coords.replace(':', '_')), coords);
+            result.add(new DefaultArtifact(coords).setFile(file.toFile()));
+        }
+        return result;
+    }
+
+    private static void deploy(RepositorySystem system, int threads, Path resumeFile, List<Artifact> artifacts)
+            throws Exception {
+        try (DeployingSink sink = DeployingSink.chunked(
+                NopOutput.INSTANCE,
+                system,
+                new DefaultRepositorySystemSession(),
+                REPOSITORY,
+                threads,
+                resumeFile,
+                false)) {
+            sink.accept(artifacts);
+        }
+    }
+
+    private static Set<List<String>> set(List<List<String>> deployed) {
+        return new HashSet<>(deployed);
+    }
+
+    @Test
+    void chunkedByGav(@TempDir Path temp) throws Exception {
+        ArrayList<List<String>> deployed = new ArrayList<>();
+        Path resumeFile = temp.resolve("resume.txt");
+        deploy(repositorySystem(deployed, Collections.emptySet()), 4, resumeFile, artifacts(temp));
+
+        assertEquals(
+                set(Arrays.asList(
+                        Arrays.asList("g:a:jar:1", "g:a:pom:1"),
+                        Arrays.asList("g:a:jar:2", "g:a:pom:2"),
+                        Arrays.asList("g:b:jar:1", "g:b:jar:sources:1", "g:b:pom:1"))),
+                set(deployed));
+        // versions of same GA are deployed one by one, in order
+        assertEquals(
+                Arrays.asList("g:a:jar:1", "g:a:jar:2"),
+                deployed.stream()
+                        .map(c -> c.get(0))
+                        .filter(c -> c.startsWith("g:a:"))
+                        .collect(Collectors.toList()));
+        assertEquals(
+                new HashSet<>(Arrays.asList("g:a:1", "g:a:2", "g:b:1")),
+                new HashSet<>(Files.readAllLines(resumeFile, StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void resumeSkipsCompleted(@TempDir Path temp) throws Exception {
+        ArrayList<List<String>> deployed = new ArrayList<>();
+        Path resumeFile = Files.writeString(temp.resolve("resume.txt"), "g:a:1\n\ng:b:1\n");
+        deploy(repositorySystem(deployed, Collections.emptySet()), 2, resumeFile, artifacts(temp));
+
+        assertEquals(Collections.singletonList(Arrays.asList("g:a:jar:2", "g:a:pom:2")), deployed);
+        assertEquals(
+                Arrays.asList("g:a:1", "", "g:b:1", "g:a:2"), Files.readAllLines(resumeFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void failurePropagatedAndResumable(@TempDir Path temp) throws Exception {
+        List<Artifact> artifacts = artifacts(temp);
+        ArrayList<List<String>> deployed = new ArrayList<>();
+        Path resumeFile = temp.resolve("resume.txt");
+        DeploymentException e = assertThrows(
+                DeploymentException.class,
+                () -> deploy(repositorySystem(deployed, Collections.singleton("g:a:2")), 1, resumeFile, artifacts));
+        assertEquals("boom g:a:2", e.getMessage());
+        // GAV deployed before failure is checkpointed, and no chunk is started after failure
+        assertEquals(Collections.singletonList(Arrays.asList("g:a:jar:1", "g:a:pom:1")), deployed);
+        assertEquals(Collections.singletonList("g:a:1"), Files.readAllLines(resumeFile, StandardCharsets.UTF_8));
+
+        deployed.clear();
+        deploy(repositorySystem(deployed, Collections.emptySet()), 1, resumeFile, artifacts);
+        assertEquals(
+                Arrays.asList(
+                        Arrays.asList("g:a:jar:2", "g:a:pom:2"),
+                        Arrays.asList("g:b:jar:1", "g:b:jar:sources:1", "g:b:pom:1")),
+                deployed);
+        assertEquals(
+                Arrays.asList("g:a:1", "g:a:2", "g:b:1"), Files.readAllLines(resumeFile, StandardCharsets.UTF_8));
+    }
+}
@@ -8,6 +8,8 @@
 package eu.maveniverse.maven.toolbox.shared.internal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import eu.maveniverse.maven.toolbox.shared.ArtifactNameMapper;
@@ -16,7 +18,11 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -62,6 +68,126 @@ public class DirectorySinkTest {
         }
     }
 
+    @Test
+    void flatParallel(@TempDir Path source, @TempDir Path target) throws IOException {
+        ArrayList<Artifact> artifacts = new ArrayList<>();
+        try (DirectorySink sink =
+                DirectorySink.flat(NopOutput.INSTANCE, target, ArtifactNameMapper.GACE(), 4, false)) {
+            for (int i = 0; i < 20; i++) {
+                Path a = source.resolve("a" + i);
+                Files.writeString(a, "content" + i, StandardCharsets.UTF_8);
+                artifacts.add(new DefaultArtifact("g:a" + i + ":1").setFile(a.toFile()));
+            }
+            sink.accept(artifacts);
+        }
+        for (int i = 0; i < 20; i++) {
+            Path aTarget = target.resolve("g.a" + i + ".jar");
+            assertTrue(Files.isRegularFile(aTarget));
+            assertEquals(Files.readString(aTarget, StandardCharsets.UTF_8), "content" + i);
+        }
+        // index is in order of acceptance
+        List<String> index = Files.readAllLines(target.resolve(".index"));
+        assertEquals(20, index.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("g:a" + i + ":jar:1 >> g.a" + i + ".jar", index.get(i));
+        }
+    }
+
+    @Test
+    void flatParallelFailureCleansUp(@TempDir Path source, @TempDir Path parent) throws IOException {
+        Path target = parent.resolve("target");
+        Path a1 = source.resolve("a1");
+        Files.writeString(a1, "one", StandardCharsets.UTF_8);
+        DirectorySink sink = DirectorySink.flat(NopOutput.INSTANCE, target, ArtifactNameMapper.GACE(), 4, false);
+        sink.accept(Arrays.asList(
+                new DefaultArtifact("g:a1:1").setFile(a1.toFile()),
+                new DefaultArtifact("g:a2:1").setFile(source.resolve("missing").toFile())));
+        assertThrows(IOException.class, sink::close);
+        assertFalse(Files.exists(target));
+    }
+
+    @Test
+    void sync(@TempDir Path source, @TempDir Path target) throws IOException {
+        Path a1 = source.resolve("a1");
+        Path a2 = source.resolve("a2");
+        Files.writeString(a1, "one", StandardCharsets.UTF_8);
+        Files.writeString(a2, "two", StandardCharsets.UTF_8);
+        List<Artifact> artifacts = Arrays.asList(
+                new DefaultArtifact("g:a1:1").setFile(a1.toFile()),
+                new DefaultArtifact("g:a2:1").setFile(a2.toFile()));
+
+        DirectorySink added = DirectorySink.sync(NopOutput.INSTANCE, target, ArtifactNameMapper.GACE(), 1, false);
+        try (added) {
+            added.accept(artifacts);
+        }
+        assertEquals(2, added.getChanges().get(DirectorySink.Change.ADDED));
+
+        DirectorySink unchanged = DirectorySink.sync(NopOutput.INSTANCE, target, ArtifactNameMapper.GACE(), 1, false);
+        try (unchanged) {
+            unchanged.accept(artifacts);
+        }
+        assertEquals(2, unchanged.getChanges().get(DirectorySink.Change.UNCHANGED));
+
+        Files.writeString(a1, "changed", StandardCharsets.UTF_8);
+        DirectorySink updated = DirectorySink.sync(NopOutput.INSTANCE, target, ArtifactNameMapper.GACE(), 1, false);
+        try (updated) {
+            updated.accept(artifacts.subList(0, 1));
+        }
+        assertEquals(1, updated.getChanges().get(DirectorySink.Change.UPDATED));
+        assertEquals(1, updated.getChanges().get(DirectorySink.Change.REMOVED));
+        assertEquals(Files.readString(target.resolve("g.a1.jar"), StandardCharsets.UTF_8), "changed");
+        assertFalse(Files.exists(target.resolve("g.a2.jar")));
+    }
+
+    @Test
+    void cas(@TempDir Path source, @TempDir Path target) throws IOException {
+        Path a1 = source.resolve("a1");
+        Path a2 = source.resolve("a2");
+        Files.writeString(a1, "same", StandardCharsets.UTF_8);
+        Files.writeString(a2, "same", StandardCharsets.UTF_8);
+        List<Artifact> artifacts = Arrays.asList(
+                new DefaultArtifact("g:a1:1").setFile(a1.toFile()),
+                new DefaultArtifact("g:a2:1").setFile(a2.toFile()));
+        ContentAddressedStore store = new ContentAddressedStore(NopOutput.INSTANCE, target.resolve("cas"));
+        for (String service : Arrays.asList("s1", "s2")) {
+            try (DirectorySink sink = DirectorySink.cas(
+                    NopOutput.INSTANCE, target.resolve(service), store, ArtifactNameMapper.GACE(), 2, false)) {
+                sink.accept(artifacts);
+            }
+        }
+
+        Path s1a1 = target.resolve("s1").resolve("g.a1.jar");
+        assertEquals(Files.readString(s1a1, StandardCharsets.UTF_8), "same");
+        assertTrue(Files.isSameFile(s1a1, target.resolve("s1").resolve("g.a2.jar")));
+        assertTrue(Files.isSameFile(s1a1, target.resolve("s2").resolve("g.a1.jar")));
+        assertEquals(0, store.gc());
+    }
+
+    @Test
+    void casGcOnClose(@TempDir Path source, @TempDir Path target) throws IOException {
+        Path a1 = source.resolve("a1");
+        Files.writeString(a1, "content", StandardCharsets.UTF_8);
+        List<Artifact> artifacts = Collections.singletonList(new DefaultArtifact("g:a1:1").setFile(a1.toFile()));
+        for (boolean gcOnClose : Arrays.asList(false, true)) {
+            ContentAddressedStore store =
+                    new ContentAddressedStore(NopOutput.INSTANCE, target.resolve("cas"), gcOnClose);
+            Path service = target.resolve("s-" + gcOnClose);
+            try (DirectorySink sink =
+                    DirectorySink.cas(NopOutput.INSTANCE, service, store, ArtifactNameMapper.GACE(), 1, false)) {
+                sink.accept(artifacts);
+            }
+            // the only link to stored file goes away
+            Files.delete(service.resolve("g.a1.jar"));
+            Path other = target.resolve("other-" + gcOnClose);
+            try (DirectorySink sink =
+                    DirectorySink.cas(NopOutput.INSTANCE, other, store, ArtifactNameMapper.GACE(), 1, false)) {
+                sink.accept(Collections.emptyList());
+            }
+            // garbage is collected on close only if asked for
+            assertEquals(gcOnClose ? 0 : 1, store.gc());
+        }
+    }
+
     @Test
     void flatSameADifferentGAccepted(@TempDir Path source, @TempDir Path target) throws IOException {
         sameADifferentGAccepted(
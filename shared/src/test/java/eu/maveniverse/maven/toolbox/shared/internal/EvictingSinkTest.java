@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import eu.maveniverse.maven.toolbox.shared.output.NopOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class EvictingSinkTest {
+    private static Artifact install(Path repository, String gav, long lastUsed) throws IOException {
+        DefaultArtifact artifact = new DefaultArtifact(gav);
+        Path file = repository
+                .resolve(artifact.getGroupId().replace('.', '/'))
+                .resolve(artifact.getArtifactId())
+                .resolve(artifact.getVersion())
+                .resolve(artifact.getArtifactId() + "-" + artifact.getVersion() + ".jar");
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[1000]);
+        FileTime time = FileTime.fromMillis(lastUsed);
+        Files.getFileAttributeView(file, BasicFileAttributeView.class).setTimes(time, time, null);
+        return artifact.setFile(file.toFile());
+    }
+
+    @Test
+    void evict(@TempDir Path repository) throws Exception {
+        Artifact oldest = install(repository, "org.example:a:1.0", 1_000_000L);
+        Artifact older = install(repository, "org.example:b:1.0", 2_000_000L);
+        Artifact pinned = install(repository, "org.other:c:1.0", 500_000L);
+        Artifact newest = install(repository, "org.example:a:2.0", 3_000_000L);
+
+        EvictingSink dryRun = EvictingSink.evicting(
+                NopOutput.INSTANCE, repository, 2000, a -> a.getArtifactId().equals("c"), 2, true);
+        try (dryRun) {
+            dryRun.accept(Arrays.asList(oldest, older, pinned, newest));
+        }
+        assertEquals(2000, dryRun.getReclaimed());
+        assertTrue(Files.isRegularFile(oldest.getFile().toPath()));
+
+        EvictingSink sink = EvictingSink.evicting(
+                NopOutput.INSTANCE, repository, 2000, a -> a.getArtifactId().equals("c"), 2, false);
+        try (sink) {
+            sink.accept(Arrays.asList(oldest, older, pinned, newest));
+        }
+        assertEquals(2000, sink.getReclaimed());
+        assertEquals(
+                Arrays.asList(oldest.getFile().toPath().getParent(), older.getFile().toPath().getParent()),
+                sink.getEvicted());
+        assertFalse(Files.exists(oldest.getFile().toPath().getParent()));
+        assertFalse(Files.exists(repository.resolve("org/example/b")));
+        assertTrue(Files.isRegularFile(pinned.getFile().toPath()));
+        assertTrue(Files.isRegularFile(newest.getFile().toPath()));
+
+        EvictingSink noop = EvictingSink.evicting(NopOutput.INSTANCE, repository, 1_000_000, a -> false, 1, false);
+        try (noop) {
+            noop.accept(Collections.singletonList(newest));
+        }
+        assertEquals(0, noop.getReclaimed());
+    }
+
+    /**
+     * Installs artifact with its POM and {@code _remote.repositories}, all last used at given time, except that POM
+     * was accessed just now (as walking the local repository reads POMs).
+     */
+    private static Path installWithPom(Path repository, String gav, long lastUsed) throws IOException {
+        DefaultArtifact artifact = new DefaultArtifact(gav);
+        Path directory = install(repository, gav, lastUsed).getFile().toPath().getParent();
+        String prefix = artifact.getArtifactId() + "-" + artifact.getVersion();
+        Path pom = Files.write(
+                directory.resolve(prefix + ".pom"),
+                ("<project><groupId>" + artifact.getGroupId() + "</groupId><artifactId>" + artifact.getArtifactId()
+                                + "</artifactId><version>" + artifact.getVersion() + "</version></project>")
+                        .getBytes(StandardCharsets.UTF_8));
+        Path remoteRepositories = Files.write(
+                directory.resolve("_remote.repositories"),
+                (prefix + ".jar>central=\n").getBytes(StandardCharsets.UTF_8));
+        FileTime time = FileTime.fromMillis(lastUsed);
+        Files.getFileAttributeView(remoteRepositories, BasicFileAttributeView.class)
+                .setTimes(time, time, null);
+        Files.getFileAttributeView(pom, BasicFileAttributeView.class)
+                .setTimes(time, FileTime.fromMillis(System.currentTimeMillis()), null);
+        return directory;
+    }
+
+    @Test
+    void evictWalkedLocalRepository(@TempDir Path repository) throws Exception {
+        // directory order is opposite to usage order
+        Path newest = installWithPom(repository, "org.example:a:1.0", 3_000_000L);
+        Path older = installWithPom(repository, "org.example:b:1.0", 2_000_000L);
+        Path oldest = installWithPom(repository, "org.example:c:1.0", 1_000_000L);
+        long unitSize;
+        try (Stream<Path> files = Files.list(newest)) {
+            unitSize = files.mapToLong(f -> f.toFile().length()).sum();
+        }
+
+        EvictingSink sink = EvictingSink.evicting(NopOutput.INSTANCE, repository, unitSize, a -> false, 2, true);
+        try (sink;
+                Stream<Artifact> artifacts = LocalRepositorySource.local(repository, 2).get()) {
+            sink.accept(artifacts);
+        }
+        assertEquals(Arrays.asList(oldest, older), sink.getEvicted());
+    }
+
+    @Test
+    void parseSize() {
+        assertEquals(1024L, EvictingSink.parseSize("1024"));
+        assertEquals(512L * 1024L, EvictingSink.parseSize("512k"));
+        assertEquals(20L * 1024L * 1024L * 1024L, EvictingSink.parseSize("20G"));
+        assertEquals(500L * 1024L * 1024L, EvictingSink.parseSize("500mb"));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Predicate;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.DependencyVisitor;
+import org.eclipse.aether.util.graph.visitor.CloningDependencyVisitor;
+import org.eclipse.aether.util.graph.visitor.FilteringDependencyVisitor;
+import org.junit.jupiter.api.Test;
+
+public class FilteringDependencyNodeTest {
+    private static final Predicate<DependencyNode> NOT_TEST = n -> !"test".equals(n.getDependency().getScope());
+
+    private static DefaultDependencyNode node(String gav, String scope, DependencyNode... children) {
+        DefaultDependencyNode node = new DefaultDependencyNode(new Dependency(new DefaultArtifact(gav), scope));
+        node.setChildren(new ArrayList<>(Arrays.asList(children)));
+        return node;
+    }
+
+    /**
+     * root
+     * +- a (compile)
+     * |  +- b (test)
+     * |  |  +- c (compile)
+     * |  |  |  \- shared (runtime)
+     * |  |  \- d (test)
+     * |  \- e (compile)
+     * |     \- shared (runtime)
+     * \- f (test)
+     *    \- g (compile)
+     */
+    private static DependencyNode graph() {
+        DefaultDependencyNode shared = node("g:shared:1", "runtime");
+        return node(
+                "g:root:1",
+                "",
+                node(
+                        "g:a:1",
+                        "compile",
+                        node("g:b:1", "test", node("g:c:1", "compile", shared), node("g:d:1", "test")),
+                        node("g:e:1", "compile", shared)),
+                node("g:f:1", "test", node("g:g:1", "compile")));
+    }
+
+    /**
+     * The "old way": eager copy of the graph using cloning visitor wrapped in filtering visitor.
+     */
+    private static DependencyNode eager(DependencyNode root, Predicate<DependencyNode> filter) {
+        CloningDependencyVisitor cloning = new CloningDependencyVisitor();
+        root.accept(new FilteringDependencyVisitor(cloning, (node, parents) -> node == root || filter.test(node)));
+        return cloning.getRootNode();
+    }
+
+    private static String dump(DependencyNode root) {
+        StringBuilder sb = new StringBuilder();
+        root.accept(new DependencyVisitor() {
+            private int depth;
+
+            @Override
+            public boolean visitEnter(DependencyNode node) {
+                sb.append(String.join("", Collections.nCopies(depth++, "  ")))
+                        .append(node.getArtifact().getArtifactId())
+                        .append('\n');
+                return true;
+            }
+
+            @Override
+            public boolean visitLeave(DependencyNode node) {
+                depth--;
+                return true;
+            }
+        });
+        return sb.toString();
+    }
+
+    @Test
+    void hoistingMatchesEagerFilter() {
+        DependencyNode root = graph();
+        String expected = dump(eager(root, NOT_TEST));
+        assertEquals("root\n  a\n    c\n      shared\n    e\n      shared\n  g\n", expected);
+        assertEquals(expected, dump(FilteringDependencyNode.view(root, NOT_TEST)));
+        assertEquals(expected, dump(FilteringDependencyNode.streaming(root, NOT_TEST)));
+    }
+
+    @Test
+    void otherFilters() {
+        DependencyNode root = graph();
+        for (Predicate<DependencyNode> filter : Arrays.<Predicate<DependencyNode>>asList(
+                n -> true,
+                n -> false,
+                n -> "compile".equals(n.getDependency().getScope()),
+                n -> !n.getArtifact().getArtifactId().equals("shared"))) {
+            String expected = dump(eager(root, filter));
+            assertEquals(expected, dump(FilteringDependencyNode.view(root, filter)));
+            assertEquals(expected, dump(FilteringDependencyNode.streaming(root, filter)));
+        }
+    }
+
+    @Test
+    void streamingCanBeTraversedAgain() {
+        DependencyNode view = FilteringDependencyNode.streaming(graph(), NOT_TEST);
+        assertEquals(dump(view), dump(view));
+    }
+
+    @Test
+    void readOnly() {
+        DependencyNode root = graph();
+        DependencyNode view = FilteringDependencyNode.readOnly(root);
+        assertEquals(dump(root), dump(view));
+        assertThrows(UnsupportedOperationException.class, () -> view.setChildren(new ArrayList<>()));
+        assertThrows(UnsupportedOperationException.class, () -> view.setScope("test"));
+        assertThrows(UnsupportedOperationException.class, () -> view.getChildren().add(node("g:x:1", "compile")));
+        assertEquals(2, root.getChildren().size());
+    }
+}
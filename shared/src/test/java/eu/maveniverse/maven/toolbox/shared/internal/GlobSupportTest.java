@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+public class GlobSupportTest {
+    @Test
+    void filter() {
+        Predicate<String> filter =
+                GlobSupport.filter(Arrays.asList("META-INF/**", "**/*.so"), Collections.singletonList("**/*.SF"));
+        assertTrue(filter.test("META-INF/MANIFEST.MF"));
+        assertTrue(filter.test("META-INF/"));
+        assertTrue(filter.test("lib.so"));
+        assertTrue(filter.test("native/linux/lib.so"));
+        assertFalse(filter.test("META-INF/SIGNER.SF"));
+        assertFalse(filter.test("org/Foo.class"));
+        assertFalse(filter.test("lib.so.1"));
+    }
+
+    @Test
+    void noPatterns() {
+        Predicate<String> filter = GlobSupport.filter(Collections.emptyList(), Collections.emptyList());
+        assertTrue(filter.test("anything/at/all"));
+    }
+
+    @Test
+    void singleSegment() {
+        Predicate<String> filter = GlobSupport.filter(Arrays.asList("*.txt", "?.md", "docs/"), Collections.emptyList());
+        assertTrue(filter.test("readme.txt"));
+        assertTrue(filter.test("a.md"));
+        assertTrue(filter.test("docs/guide/index.html"));
+        assertFalse(filter.test("sub/readme.txt"));
+        assertFalse(filter.test("ab.md"));
+    }
+}
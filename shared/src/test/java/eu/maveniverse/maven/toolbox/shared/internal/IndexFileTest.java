@@ -7,6 +7,7 @@
  */
 package eu.maveniverse.maven.toolbox.shared.internal;
 
+import eu.maveniverse.maven.toolbox.shared.ArtifactNameMapper;
 import eu.maveniverse.maven.toolbox.shared.output.NopOutput;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -14,6 +15,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
@@ -97,4 +99,44 @@ public class IndexFileTest {
         Assertions.assertTrue(lines.contains("g:a1:jar:1 >> g/a1/1/a1-1.jar"));
         Assertions.assertTrue(lines.contains("g:a2:jar:1 >> g/a2/1/a2-1.jar"));
     }
+
+    @Test
+    void syncBinary(@TempDir Path target) throws IOException {
+        Path content = Files.write(target.resolve("somecontent"), "somecontent".getBytes(StandardCharsets.UTF_8));
+        Path directory = target.resolve("sync");
+        Path indexFile;
+        try (DirectorySink sink = DirectorySink.sync(
+                NopOutput.INSTANCE, directory, ArtifactNameMapper.GACE(), 1, IndexFileWriter.Format.BINARY, false)) {
+            indexFile = sink.getIndexFile();
+            sink.accept(Arrays.asList(
+                    new DefaultArtifact("g:a1:1").setFile(content.toFile()),
+                    new DefaultArtifact("g:a2:1").setFile(content.toFile())));
+        }
+        Assertions.assertTrue(IndexFileReader.isBinary(indexFile));
+
+        try (IndexFileReader indexFileReader = new IndexFileReader(indexFile)) {
+            Map<String, IndexFileReader.Entry> entries = indexFileReader.entries();
+            Assertions.assertEquals(2, entries.size());
+            IndexFileReader.Entry entry = entries.get("g.a1.jar");
+            Assertions.assertEquals("g:a1:jar:1", entry.getArtifactId());
+            Assertions.assertEquals(Files.size(content), entry.getSize());
+            Assertions.assertEquals(DigestSupport.sha1(content), entry.getSha1());
+        }
+
+        // format of existing index is kept
+        DirectorySink sink = DirectorySink.sync(NopOutput.INSTANCE, directory, ArtifactNameMapper.GACE(), 1, false);
+        try (sink) {
+            sink.accept(Arrays.asList(
+                    new DefaultArtifact("g:a1:1").setFile(content.toFile()),
+                    new DefaultArtifact("g:a2:1").setFile(content.toFile())));
+        }
+        Assertions.assertEquals(2, sink.getChanges().get(DirectorySink.Change.UNCHANGED));
+        Assertions.assertTrue(IndexFileReader.isBinary(indexFile));
+
+        try (DirectorySource source = DirectorySource.directory(directory)) {
+            List<Artifact> artifacts = source.get().collect(Collectors.toList());
+            Assertions.assertEquals(2, artifacts.size());
+            Assertions.assertEquals(directory.resolve("g.a1.jar").toFile(), artifacts.get(0).getFile());
+        }
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.DependencyCollectionContext;
+import org.eclipse.aether.collection.DependencySelector;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.impl.ArtifactDescriptorReader;
+import org.eclipse.aether.impl.VersionRangeResolver;
+import org.eclipse.aether.internal.impl.DefaultChecksumPolicyProvider;
+import org.eclipse.aether.internal.impl.DefaultRemoteRepositoryManager;
+import org.eclipse.aether.internal.impl.DefaultUpdatePolicyAnalyzer;
+import org.eclipse.aether.internal.impl.collect.df.DfDependencyCollector;
+import org.eclipse.aether.resolution.ArtifactDescriptorResult;
+import org.eclipse.aether.resolution.VersionRangeResult;
+import org.eclipse.aether.util.version.GenericVersionScheme;
+import org.eclipse.aether.version.Version;
+import org.junit.jupiter.api.Test;
+
+public class LevelDependencySelectorTest {
+    /**
+     * root
+     * +- a
+     * |  \- c
+     * |     \- d
+     * \- b
+     *    \- c
+     *       \- d
+     */
+    private static final Map<String, List<String>> GRAPH = new HashMap<>();
+
+    static {
+        GRAPH.put("a", Collections.singletonList("c"));
+        GRAPH.put("b", Collections.singletonList("c"));
+        GRAPH.put("c", Collections.singletonList("d"));
+    }
+
+    private static DependencyNode collect(DependencySelector selector) throws Exception {
+        Version version = new GenericVersionScheme().parseVersion("1");
+        ArtifactDescriptorReader descriptorReader = (session, request) -> {
+            ArtifactDescriptorResult result = new ArtifactDescriptorResult(request);
+            result.setArtifact(request.getArtifact());
+            result.setDependencies(
+                    GRAPH.getOrDefault(request.getArtifact().getArtifactId(), Collections.emptyList()).stream()
+                            .map(a -> new Dependency(new DefaultArtifact("g:" + a + ":1"), "compile"))
+                            .collect(Collectors.toList()));
+            return result;
+        };
+        VersionRangeResolver versionRangeResolver = (session, request) -> {
+            VersionRangeResult result = new VersionRangeResult(request);
+            result.addVersion(version);
+            return result;
+        };
+        DfDependencyCollector collector = new DfDependencyCollector(
+                new DefaultRemoteRepositoryManager(
+                        new DefaultUpdatePolicyAnalyzer(), new DefaultChecksumPolicyProvider()),
+                descriptorReader,
+                versionRangeResolver);
+
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setDependencySelector(selector);
+        CollectRequest collectRequest = new CollectRequest();
+        collectRequest.setRootArtifact(new DefaultArtifact("g:root:1"));
+        collectRequest.setDependencies(Arrays.asList(
+                new Dependency(new DefaultArtifact("g:a:1"), "compile"),
+                new Dependency(new DefaultArtifact("g:b:1"), "compile")));
+        return collector.collectDependencies(session, collectRequest).getRoot();
+    }
+
+    private static DependencyNode c(DependencyNode root, int index) {
+        return root.getChildren().get(index).getChildren().get(0);
+    }
+
+    @Test
+    void equality() {
+        LevelDependencySelector selector = new LevelDependencySelector(3);
+        DependencySelector child1 = selector.deriveChildSelector((DependencyCollectionContext) null);
+        DependencySelector child2 = selector.deriveChildSelector((DependencyCollectionContext) null);
+        assertNotSame(child1, child2);
+        assertEquals(child1, child2);
+        assertEquals(child1.hashCode(), child2.hashCode());
+        assertNotEquals(selector, child1);
+        assertNotEquals(new LevelDependencySelector(4), selector);
+    }
+
+    @Test
+    void collectorSharesChildrenOnSameLevel() throws Exception {
+        DependencyNode root = collect(new LevelDependencySelector(5));
+        assertEquals("c", c(root, 0).getArtifact().getArtifactId());
+        assertEquals("c", c(root, 1).getArtifact().getArtifactId());
+        assertNotSame(c(root, 0), c(root, 1));
+        assertSame(c(root, 0).getChildren(), c(root, 1).getChildren());
+        assertEquals(1, c(root, 0).getChildren().size());
+    }
+
+    @Test
+    void levelLimited() throws Exception {
+        DependencyNode root = collect(new LevelDependencySelector(2));
+        assertEquals(2, root.getChildren().size());
+        assertEquals("c", c(root, 0).getArtifact().getArtifactId());
+        assertEquals(Collections.emptyList(), c(root, 0).getChildren());
+    }
+}
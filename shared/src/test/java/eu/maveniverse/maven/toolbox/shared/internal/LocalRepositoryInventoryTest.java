@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.aether.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LocalRepositoryInventoryTest {
+    private static final FileTime PAST = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+
+    private static void write(Path repository, String path, String content) throws IOException {
+        Path file = repository.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void pom(Path repository, String version) throws IOException {
+        String prefix = "org/example/child/" + version + "/child-" + version;
+        write(
+                repository,
+                prefix + ".pom",
+                "<project><groupId>org.example</groupId><artifactId>child</artifactId><version>" + version
+                        + "</version></project>");
+        write(repository, prefix + ".jar", "jar");
+        write(repository, prefix + ".jar.sha1", "da39a3ee5e6b4b0d3255bfef95601890afd80709");
+    }
+
+    private static void age(Path repository) throws IOException {
+        try (Stream<Path> paths = Files.walk(repository)) {
+            for (Path path : paths.filter(Files::isDirectory).collect(Collectors.toList())) {
+                Files.setLastModifiedTime(path, PAST);
+            }
+        }
+    }
+
+    private static List<String> ids(Artifacts.Source source) throws IOException {
+        try (Stream<Artifact> artifacts = source.get()) {
+            return artifacts.map(Artifact::toString).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void incremental(@TempDir Path repository) throws IOException {
+        pom(repository, "1.0");
+        age(repository);
+        LocalRepositoryInventory inventory = LocalRepositoryInventory.inventory(repository, 2);
+        assertEquals(ids(LocalRepositorySource.local(repository)), ids(inventory));
+        assertEquals(5, inventory.getChangedDirectories());
+        assertTrue(Files.isRegularFile(inventory.getFile()));
+
+        age(repository);
+        assertEquals(ids(LocalRepositorySource.local(repository)), ids(inventory));
+        assertEquals(5, inventory.getScannedDirectories());
+        assertEquals(0, inventory.getChangedDirectories());
+
+        pom(repository, "2.0");
+        List<String> ids = ids(inventory);
+        assertEquals(ids(LocalRepositorySource.local(repository)), ids);
+        assertEquals(4, ids.size());
+        assertEquals(2, inventory.getChangedDirectories());
+
+        try (Stream<Artifact> artifacts = LocalRepositoryInventory.inventory(repository, 1).get()) {
+            Artifact jar = artifacts.filter(a -> "jar".equals(a.getExtension())).findFirst().orElseThrow();
+            assertEquals("3", jar.getProperty(LocalRepositoryInventory.PROPERTY_SIZE, null));
+            assertEquals(
+                    "da39a3ee5e6b4b0d3255bfef95601890afd80709",
+                    jar.getProperty(LocalRepositoryInventory.PROPERTY_SHA1, null));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import eu.maveniverse.maven.toolbox.shared.ArtifactMatcher;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.aether.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LocalRepositorySourceTest {
+    private static void write(Path repository, String path, String content) throws IOException {
+        Path file = repository.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void get(@TempDir Path repository) throws IOException {
+        write(
+                repository,
+                "org/example/child/1.0/child-1.0.pom",
+                "<project><parent><groupId>org.example</groupId><artifactId>parent</artifactId>"
+                        + "<version>1.0</version></parent><artifactId>child</artifactId></project>");
+        write(repository, "org/example/child/1.0/child-1.0.jar", "jar");
+        write(repository, "org/example/child/1.0/child-1.0.jar.sha1", "sha1");
+        write(repository, "org/example/child/1.0/child-1.0-sources.jar", "sources");
+        // coordinates declared after other elements, and not in line with parent
+        write(
+                repository,
+                "org/other/late/2.0/late-2.0.pom",
+                "<project><parent><groupId>org.example</groupId><artifactId>parent</artifactId>"
+                        + "<version>1.0</version></parent><artifactId>late</artifactId><name>late</name>"
+                        + "<version>2.0</version><groupId>org.other</groupId></project>");
+
+        List<String> expected = Arrays.asList(
+                "org.example:child:pom:1.0",
+                "org.example:child:jar:sources:1.0",
+                "org.example:child:jar:1.0",
+                "org.other:late:pom:2.0");
+        try (Stream<Artifact> artifacts = LocalRepositorySource.local(repository).get()) {
+            assertEquals(expected, artifacts.map(Artifact::toString).collect(Collectors.toList()));
+        }
+        try (Stream<Artifact> artifacts = LocalRepositorySource.local(repository, 4).get()) {
+            assertEquals(expected, artifacts.map(Artifact::toString).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void pruned(@TempDir Path repository) throws IOException {
+        for (String ga : Arrays.asList("org/foo/a", "org/foo/b", "org/foobar/a", "org/other/a")) {
+            String artifactId = ga.substring(ga.lastIndexOf('/') + 1);
+            String groupId = ga.substring(0, ga.lastIndexOf('/')).replace('/', '.');
+            write(
+                    repository,
+                    ga + "/1.0/" + artifactId + "-1.0.pom",
+                    "<project><groupId>" + groupId + "</groupId><artifactId>" + artifactId
+                            + "</artifactId><version>1.0</version></project>");
+        }
+        // misplaced POM, not in line with the layout, is not even read when pruned
+        write(
+                repository,
+                "org/other/b/1.0/b-1.0.pom",
+                "<project><groupId>org.foo</groupId><artifactId>b</artifactId><version>1.0</version></project>");
+
+        ArtifactMatcher matcher = ArtifactMatcher.artifact("org.foo:*");
+        Artifacts.Source source =
+                ArtifactSources.matchingArtifactSource(matcher, LocalRepositorySource.local(repository));
+        try (Stream<Artifact> artifacts = source.get()) {
+            assertEquals(
+                    Arrays.asList("org.foo:a:pom:1.0", "org.foo:b:pom:1.0"),
+                    artifacts.map(Artifact::toString).collect(Collectors.toList()));
+        }
+        matcher = ArtifactMatcher.artifact("org.foo*");
+        try (Stream<Artifact> artifacts = LocalRepositorySource.local(repository).pruned(matcher).get()) {
+            assertEquals(
+                    Arrays.asList("org.foo:a:pom:1.0", "org.foo:b:pom:1.0", "org.foobar:a:pom:1.0"),
+                    artifacts.map(Artifact::toString).collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ModuleDescriptorScannerTest {
+    @Test
+    void automaticModuleName() throws IOException {
+        assertEquals("foo.bar.baz", ModuleDescriptorScanner.automaticModuleName("foo-bar_baz-2.3.4-SNAPSHOT.jar"));
+        assertEquals("commons.lang3", ModuleDescriptorScanner.automaticModuleName("commons-lang3-3.17.0.jar"));
+        assertEquals("guava", ModuleDescriptorScanner.automaticModuleName("guava-33.0.0-jre.jar"));
+        assertThrows(IOException.class, () -> ModuleDescriptorScanner.automaticModuleName("1-foo.jar"));
+        // reserved keyword is not a legal module name part
+        assertThrows(IOException.class, () -> ModuleDescriptorScanner.automaticModuleName("foo-native-1.0.jar"));
+    }
+
+    @Test
+    void scan(@TempDir Path temp) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Automatic-Module-Name", "org.example.auto");
+        Path auto = temp.resolve("auto-1.0.jar");
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(auto), manifest)) {
+            jar.putNextEntry(new ZipEntry("org/example/Foo.class"));
+            jar.closeEntry();
+        }
+        ModuleDescriptorExtractingSink.ModuleDescriptor descriptor = ModuleDescriptorScanner.scan(auto);
+        assertEquals("org.example.auto", descriptor.name());
+        assertTrue(descriptor.automatic());
+        assertEquals("MANIFEST", descriptor.moduleNameSource());
+
+        Path plain = temp.resolve("plain-lib-1.0.jar");
+        try (OutputStream outputStream = Files.newOutputStream(plain);
+                JarOutputStream jar = new JarOutputStream(outputStream)) {
+            jar.putNextEntry(new ZipEntry("readme.txt"));
+            jar.write("hello".getBytes(StandardCharsets.UTF_8));
+            jar.closeEntry();
+        }
+        descriptor = ModuleDescriptorScanner.scan(plain);
+        assertEquals("plain.lib", descriptor.name());
+        assertEquals("FILENAME", descriptor.moduleNameSource());
+
+        Path pom = temp.resolve("plain-lib-1.0.pom");
+        Files.write(pom, "<project/>".getBytes(StandardCharsets.UTF_8));
+        assertNull(ModuleDescriptorScanner.scan(pom));
+    }
+
+    @Test
+    void sameContentOtherName(@TempDir Path temp) throws IOException {
+        Path first = temp.resolve("first-1.0.jar");
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(first))) {
+            jar.putNextEntry(new ZipEntry("readme.txt"));
+            jar.closeEntry();
+        }
+        Path second = Files.copy(first, temp.resolve("second-1.0.jar"));
+        String sha1 = DigestSupport.sha1(first);
+        Files.write(temp.resolve("first-1.0.jar.sha1"), sha1.getBytes(StandardCharsets.US_ASCII));
+        Files.write(temp.resolve("second-1.0.jar.sha1"), sha1.getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals("first", ModuleDescriptorScanner.scan(first).name());
+        assertEquals("second", ModuleDescriptorScanner.scan(second).name());
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import eu.maveniverse.maven.toolbox.shared.output.NopOutput;
+import eu.maveniverse.maven.toolbox.shared.output.Output;
+import eu.maveniverse.maven.toolbox.shared.output.PrintStreamOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StatsArtifactSinkTest {
+    /**
+     * Artifact of given size, as if it was recorded by local repository inventory.
+     */
+    private static Artifact sized(String coords, long size) {
+        return new DefaultArtifact(coords)
+                .setProperties(
+                        Collections.singletonMap(LocalRepositoryInventory.PROPERTY_SIZE, Long.toString(size)));
+    }
+
+    private static Output output(ByteArrayOutputStream out) {
+        return new PrintStreamOutput(
+                new PrintStream(out, true, StandardCharsets.UTF_8), Output.Verbosity.NORMAL, false);
+    }
+
+    /**
+     * Closes the sink and returns the lines it reported.
+     */
+    private static List<String> report(StatsArtifactSink sink, ByteArrayOutputStream out) {
+        sink.close();
+        return Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\\R"));
+    }
+
+    @Test
+    void percentile() throws IOException {
+        StatsArtifactSink sink = new StatsArtifactSink(0, 10, NopOutput.INSTANCE);
+        assertEquals(-1, sink.percentile(50));
+        assertThrows(IllegalArgumentException.class, () -> sink.percentile(0));
+        assertThrows(IllegalArgumentException.class, () -> sink.percentile(101));
+
+        StatsArtifactSink single = new StatsArtifactSink(0, 10, NopOutput.INSTANCE);
+        single.accept(sized("g:a:7", 7));
+        assertEquals(7, single.percentile(1));
+        assertEquals(7, single.percentile(100));
+
+        // sizes 1..100 accepted in reverse order
+        for (int i = 100; i > 0; i--) {
+            sink.accept(sized("g:a:" + i, i));
+        }
+        assertEquals(1, sink.percentile(1));
+        assertEquals(7, sink.percentile(7));
+        assertEquals(50, sink.percentile(50));
+        assertEquals(90, sink.percentile(90));
+        assertEquals(100, sink.percentile(100));
+    }
+
+    @Test
+    void histogram(@TempDir Path temp) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatsArtifactSink sink = new StatsArtifactSink(0, 10, output(out));
+        Path empty = Files.createFile(temp.resolve("empty.jar"));
+        sink.accept(new DefaultArtifact("g:empty:1").setFile(empty.toFile()));
+        for (long size : new long[] {1, 2, 3, 4, 1023, 1024}) {
+            sink.accept(sized("g:a" + size + ":1", size));
+        }
+        // no file nor size: counted, but left out of histogram
+        sink.accept(new DefaultArtifact("g:none:1"));
+        assertEquals(8, sink.count());
+        assertEquals(2057, sink.size());
+
+        List<String> lines = report(sink, out);
+        int start = lines.indexOf("Size histogram:");
+        assertTrue(start >= 0, lines.toString());
+        assertEquals(
+                Arrays.asList(
+                        "  empty: 1",
+                        "  1 B .. 2 B: 1",
+                        "  2 B .. 4 B: 2",
+                        "  4 B .. 8 B: 1",
+                        "  512 B .. 1.0 KiB: 1",
+                        "  1.0 KiB .. 2.0 KiB: 1",
+                        "By groupId:"),
+                lines.subList(start + 1, start + 8));
+    }
+
+    @Test
+    void breakdowns() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatsArtifactSink sink = new StatsArtifactSink(0, 2, output(out));
+        sink.accept(sized("g1:a:jar:1", 10));
+        sink.accept(sized("g1:a:jar:sources:1", 20));
+        sink.accept(sized("g1:a:pom:1", 1));
+        sink.accept(sized("g2:b:jar:1", 40));
+        sink.accept(sized("g3:c:pom:1", 2));
+
+        List<String> lines = report(sink, out);
+        int groupId = lines.indexOf("By groupId:");
+        assertEquals(
+                Arrays.asList(
+                        "By groupId:",
+                        "  g2: 1 artifacts (40 B)",
+                        "  g1: 3 artifacts (31 B)",
+                        "  ... and 1 more",
+                        "By extension:",
+                        "  jar: 3 artifacts (70 B)",
+                        "  pom: 2 artifacts (3 B)",
+                        "By classifier:",
+                        "  (none): 4 artifacts (53 B)",
+                        "  sources: 1 artifacts (20 B)"),
+                lines.subList(groupId, groupId + 10));
+    }
+
+    @Test
+    void largest() throws IOException {
+        StatsArtifactSink sink = new StatsArtifactSink(0, 2, NopOutput.INSTANCE);
+        sink.accept(sized("g:small:1", 5));
+        sink.accept(sized("g:large:1", 50));
+        sink.accept(sized("g:medium:1", 20));
+        sink.accept(new DefaultArtifact("g:unsized:1"));
+        assertEquals(
+                Arrays.asList("large", "medium"),
+                sink.largest().keySet().stream().map(Artifact::getArtifactId).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(50L, 20L), new ArrayList<>(sink.largest().values()));
+    }
+
+    @Test
+    void concurrentAccept() throws Exception {
+        StatsArtifactSink sink = new StatsArtifactSink(0, 3, NopOutput.INSTANCE);
+        int threads = 8;
+        int perThread = 1000;
+        ArrayList<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            tasks.add(() -> {
+                for (int i = 1; i <= perThread; i++) {
+                    sink.accept(sized("g" + (i % 3) + ":a" + thread + ":" + i, i));
+                }
+                return null;
+            });
+        }
+        ConcurrentSupport.invokeAll(threads, "test", tasks);
+
+        assertEquals(threads * perThread, sink.count());
+        assertEquals(threads * perThread, sink.getSeenArtifacts().size());
+        assertEquals((long) threads * perThread * (perThread + 1) / 2, sink.size());
+        // every size is there once per thread
+        assertEquals(10, sink.percentile(1));
+        assertEquals(500, sink.percentile(50));
+        assertEquals(perThread, sink.percentile(100));
+        assertEquals(Arrays.asList(1000L, 1000L, 1000L), new ArrayList<>(sink.largest().values()));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import eu.maveniverse.maven.toolbox.shared.output.NopOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class UnpackSinkTest {
+    private static final FileTime TIME = FileTime.fromMillis(1_600_000_000_000L);
+
+    /**
+     * Writes entries into archive, where entries having name ending with "/" are directories.
+     */
+    private static void write(ZipOutputStream zip, Map<String, String> entries) throws IOException {
+        try (ZipOutputStream z = zip) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                zipEntry.setLastModifiedTime(TIME);
+                z.putNextEntry(zipEntry);
+                if (!entry.getKey().endsWith("/")) {
+                    z.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                }
+                z.closeEntry();
+            }
+        }
+    }
+
+    private static Map<String, String> entries() {
+        LinkedHashMap<String, String> entries = new LinkedHashMap<>();
+        entries.put("empty/", "");
+        entries.put("a.txt", "a");
+        for (int i = 0; i < 20; i++) {
+            entries.put("dir" + (i % 3) + "/sub/file" + i + ".txt", "content " + i);
+        }
+        return entries;
+    }
+
+    private static UnpackSink sink(Path target) throws IOException {
+        return UnpackSink.unpack(NopOutput.INSTANCE, target, Artifact::getArtifactId, false, 4, false);
+    }
+
+    private static void assertUnpacked(Path root, Map<String, String> entries) throws IOException {
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            Path path = root.resolve(entry.getKey());
+            if (entry.getKey().endsWith("/")) {
+                assertTrue(Files.isDirectory(path), entry.getKey());
+            } else {
+                assertEquals(entry.getValue(), Files.readString(path, StandardCharsets.UTF_8), entry.getKey());
+                assertEquals(TIME.toMillis(), Files.getLastModifiedTime(path).toMillis(), entry.getKey());
+            }
+        }
+    }
+
+    @Test
+    void unzipConcurrently(@TempDir Path source, @TempDir Path target) throws IOException {
+        Map<String, String> entries = entries();
+        Path zip = source.resolve("z-1.zip");
+        write(new ZipOutputStream(Files.newOutputStream(zip)), entries);
+        Path jar = source.resolve("j-1.jar");
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        write(new JarOutputStream(Files.newOutputStream(jar), manifest), entries);
+
+        try (UnpackSink sink = sink(target.resolve("out"))) {
+            sink.accept(new DefaultArtifact("g:z:zip:1").setFile(zip.toFile()));
+            sink.accept(new DefaultArtifact("g:j:1").setFile(jar.toFile()));
+        }
+        assertUnpacked(target.resolve("out").resolve("z"), entries);
+        assertUnpacked(target.resolve("out").resolve("j"), entries);
+        assertTrue(Files.isRegularFile(target.resolve("out").resolve("j").resolve("META-INF/MANIFEST.MF")));
+    }
+
+    @Test
+    void pathEscapePrevented(@TempDir Path source, @TempDir Path target) throws IOException {
+        LinkedHashMap<String, String> entries = new LinkedHashMap<>();
+        entries.put("a.txt", "a");
+        entries.put("../evil.txt", "evil");
+        Path zip = source.resolve("z-1.zip");
+        write(new ZipOutputStream(Files.newOutputStream(zip)), entries);
+
+        try (UnpackSink sink = sink(target.resolve("out"))) {
+            IOException e = assertThrows(
+                    IOException.class, () -> sink.accept(new DefaultArtifact("g:z:zip:1").setFile(zip.toFile())));
+            assertEquals("Path escape prevented", e.getMessage());
+        }
+        assertFalse(Files.exists(target.resolve("out").resolve("evil.txt")));
+        assertFalse(Files.exists(target.resolve("out").resolve("z").resolve("a.txt")));
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.shared.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import eu.maveniverse.maven.toolbox.shared.output.NopOutput;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.MetadataRequest;
+import org.eclipse.aether.resolution.MetadataResult;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
+import org.eclipse.aether.transfer.MetadataTransferException;
+import org.eclipse.aether.util.version.GenericVersionScheme;
+import org.eclipse.aether.version.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class VersionsCacheTest {
+    private static final GenericVersionScheme VERSION_SCHEME = new GenericVersionScheme();
+
+    private static final List<RemoteRepository> REPOSITORIES = Collections.singletonList(
+            new RemoteRepository.Builder("central", "default", "https://repo.maven.apache.org/maven2/").build());
+
+    private static DefaultRepositorySystemSession session(Path directory, long ttl, boolean persisted) {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setConfigProperty(VersionsCache.CONFIG_PROP_TTL, Long.toString(ttl));
+        session.setConfigProperty(VersionsCache.CONFIG_PROP_PERSISTED, Boolean.toString(persisted));
+        session.setConfigProperty(VersionsCache.CONFIG_PROP_DIRECTORY, directory.toString());
+        return session;
+    }
+
+    private static VersionsCache cache(DefaultRepositorySystemSession session, Path directory) {
+        return VersionsCache.get(NopOutput.INSTANCE, session, VERSION_SCHEME, directory);
+    }
+
+    private static List<Version> versions(String... versions) throws Exception {
+        ArrayList<Version> result = new ArrayList<>();
+        for (String version : versions) {
+            result.add(VERSION_SCHEME.parseVersion(version));
+        }
+        return result;
+    }
+
+    @Test
+    void sessionScoped(@TempDir Path directory) {
+        DefaultRepositorySystemSession session = session(directory, 60, false);
+        assertSame(cache(session, directory), cache(session, directory));
+    }
+
+    @Test
+    void ttl(@TempDir Path directory) throws Exception {
+        VersionsCache cache = cache(session(directory, 60, false), directory);
+        String key = cache.key("g", "a", REPOSITORIES);
+        assertNull(cache.get(key));
+        cache.put(key, versions("1.0", "2.0"));
+        assertEquals(versions("1.0", "2.0"), cache.get(key));
+
+        VersionsCache expiring = cache(session(directory, 0, false), directory);
+        expiring.put(key, versions("1.0"));
+        Thread.sleep(5);
+        assertNull(expiring.get(key));
+    }
+
+    @Test
+    void persisted(@TempDir Path directory) throws Exception {
+        VersionsCache cache = cache(session(directory, 60, true), directory);
+        String key = cache.key("g", "a", REPOSITORIES);
+        cache.put(key, versions("1.0", "1.1-SNAPSHOT", "2.0"));
+
+        // another invocation (session) reads it back
+        VersionsCache other = cache(session(directory, 60, true), directory);
+        assertEquals(versions("1.0", "1.1-SNAPSHOT", "2.0"), other.get(key));
+        // but not when not persisted
+        assertNull(cache(session(directory, 60, false), directory).get(key));
+        // nor when it expired meanwhile (entry records the time it was stored)
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            files = stream.filter(p -> p.toString().endsWith(".versions")).collect(Collectors.toList());
+        }
+        assertEquals(1, files.size());
+        List<String> lines = Files.readAllLines(files.get(0), StandardCharsets.UTF_8);
+        lines.set(1, Long.toString(System.currentTimeMillis() - 61_000L));
+        Files.write(files.get(0), lines, StandardCharsets.UTF_8);
+        assertNull(cache(session(directory, 60, true), directory).get(key));
+    }
+
+    @Test
+    void invalidate(@TempDir Path directory) throws Exception {
+        DefaultRepositorySystemSession session = session(directory, 60, true);
+        // no cache yet: nothing to do
+        VersionsCache.invalidate(session);
+        VersionsCache cache = cache(session, directory);
+        String key = cache.key("g", "a", REPOSITORIES);
+        cache.put(key, versions("1.0"));
+        Thread.sleep(5);
+        // as install/deploy sinks do, with session derived from the one cache belongs to
+        VersionsCache.invalidate(new DefaultRepositorySystemSession(session));
+        // persisted entry stored before invalidation is not loaded back either
+        assertNull(cache.get(key));
+        cache.put(key, versions("1.0", "1.1"));
+        assertEquals(versions("1.0", "1.1"), cache.get(key));
+        assertEquals(versions("1.0", "1.1"), cache(session(directory, 60, true), directory).get(key));
+    }
+
+    @Test
+    void prefetch(@TempDir Path directory) throws Exception {
+        Path metadataA = metadata(directory, "a", "2.0", "1.0", "1.5");
+        Path metadataB = metadata(directory, "b", "3.0");
+        ArrayList<MetadataRequest> issued = new ArrayList<>();
+        RepositorySystem repositorySystem = repositorySystem(issued, request -> {
+            MetadataResult result = new MetadataResult(request);
+            String artifactId = request.getMetadata().getArtifactId();
+            if (request.getRepository() == null) {
+                // local: "a" is known locally as well
+                if ("a".equals(artifactId)) {
+                    result.setMetadata(request.getMetadata().setFile(metadataA.toFile()));
+                } else {
+                    result.setException(new MetadataNotFoundException(request.getMetadata(), (RemoteRepository) null));
+                }
+            } else if ("a".equals(artifactId)) {
+                result.setMetadata(request.getMetadata().setFile(metadataA.toFile()));
+            } else if ("b".equals(artifactId)) {
+                result.setMetadata(request.getMetadata().setFile(metadataB.toFile()));
+            } else if ("failed".equals(artifactId)) {
+                result.setException(
+                        new MetadataTransferException(request.getMetadata(), request.getRepository(), "boom"));
+            } else {
+                result.setException(new MetadataNotFoundException(request.getMetadata(), request.getRepository()));
+            }
+            return result;
+        });
+        DefaultRepositorySystemSession session = session(directory, 60, false);
+        VersionsCache cache = cache(session, directory);
+        String cachedKey = cache.key("g", "cached", REPOSITORIES);
+        cache.put(cachedKey, versions("9"));
+
+        cache.prefetch(
+                repositorySystem,
+                session,
+                REPOSITORIES,
+                "test",
+                null,
+                Arrays.asList(
+                        new DefaultArtifact("g:b:1"),
+                        new DefaultArtifact("g:cached:1"),
+                        new DefaultArtifact("g:a:1"),
+                        new DefaultArtifact("g:b:jar:sources:1"),
+                        new DefaultArtifact("g:failed:1"),
+                        new DefaultArtifact("g:missing:1")));
+
+        // one batch: GAs in order of first appearance, deduplicated, cached ones left out; local first, then remotes
+        assertEquals(
+                Arrays.asList(
+                        "b@local", "b@central", "a@local", "a@central", "failed@local", "failed@central",
+                        "missing@local", "missing@central"),
+                issued.stream()
+                        .map(r -> r.getMetadata().getArtifactId() + "@"
+                                + (r.getRepository() == null ? "local" : r.getRepository().getId()))
+                        .collect(Collectors.toList()));
+        assertEquals(versions("1.0", "1.5", "2.0"), cache.get(cache.key("g", "a", REPOSITORIES)));
+        assertEquals(versions("3.0"), cache.get(cache.key("g", "b", REPOSITORIES)));
+        assertEquals(versions("9"), cache.get(cachedKey));
+        // "not found" is a valid answer, transfer failure is not
+        assertEquals(Collections.emptyList(), cache.get(cache.key("g", "missing", REPOSITORIES)));
+        assertNull(cache.get(cache.key("g", "failed", REPOSITORIES)));
+
+        // everything is cached now, no more requests
+        issued.clear();
+        cache.prefetch(
+                repositorySystem,
+                session,
+                REPOSITORIES,
+                "test",
+                null,
+                Collections.singletonList(new DefaultArtifact("g:a:1")));
+        assertEquals(Collections.emptyList(), issued);
+    }
+
+    private static Path metadata(Path directory, String artifactId, String... versions) throws IOException {
+        StringBuilder xml = new StringBuilder("<metadata><groupId>g</groupId><artifactId>")
+                .append(artifactId)
+                .append("</artifactId><versioning><versions>");
+        for (String version : versions) {
+            xml.append("<version>").append(version).append("</version>");
+        }
+        xml.append("</versions></versioning></metadata>");
+        return Files.write(
+                directory.resolve(artifactId + "-maven-metadata.xml"), xml.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RepositorySystem repositorySystem(
+            List<MetadataRequest> issued, Function<MetadataRequest, MetadataResult> responder) {
+        return (RepositorySystem) Proxy.newProxyInstance(
+                VersionsCacheTest.class.getClassLoader(), new Class<?>[] {RepositorySystem.class}, (p, m, a) -> {
+                    if ("resolveMetadata".equals(m.getName())) {
+                        List<MetadataRequest> requests = new ArrayList<>((List<MetadataRequest>) a[1]);
+                        issued.addAll(requests);
+                        return requests.stream().map(responder).collect(Collectors.toList());
+                    }
+                    throw new UnsupportedOperationException(m.getName());
+                });
+    }
+}
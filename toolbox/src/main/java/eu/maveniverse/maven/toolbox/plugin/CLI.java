@@ -19,6 +19,7 @@ import eu.maveniverse.maven.toolbox.plugin.gav.GavDmListMojo;
 import eu.maveniverse.maven.toolbox.plugin.gav.GavDmTreeMojo;
 import eu.maveniverse.maven.toolbox.plugin.gav.GavDumpMojo;
 import eu.maveniverse.maven.toolbox.plugin.gav.GavEffectiveModelMojo;
+import eu.maveniverse.maven.toolbox.plugin.gav.GavEvictMojo;
 import eu.maveniverse.maven.toolbox.plugin.gav.GavExistsMojo;
 import eu.maveniverse.maven.toolbox.plugin.gav.GavIdentifyMojo;
 import eu.maveniverse.maven.toolbox.plugin.gav.GavInstallMojo;
@@ -57,6 +58,7 @@ import picocli.CommandLine;
             GavDmListMojo.class,
             GavDmTreeMojo.class,
             GavEffectiveModelMojo.class,
+            GavEvictMojo.class,
             GavExistsMojo.class,
             GavIdentifyMojo.class,
             GavInstallMojo.class,
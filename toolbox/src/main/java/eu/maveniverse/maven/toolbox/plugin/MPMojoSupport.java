@@ -10,6 +10,11 @@ package eu.maveniverse.maven.toolbox.plugin;
 import eu.maveniverse.maven.toolbox.shared.DependencyMatcher;
 import eu.maveniverse.maven.toolbox.shared.ReactorLocator;
 import eu.maveniverse.maven.toolbox.shared.ResolutionRoot;
+import eu.maveniverse.maven.toolbox.shared.Result;
+import eu.maveniverse.maven.toolbox.shared.output.Output;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -43,6 +48,67 @@ public abstract class MPMojoSupport extends MojoSupport {
     @Parameter(property = "toolbox.search.backend.type")
     private String repositoryVendor;
 
+    /**
+     * Aggregator mode: if {@code true}, the goal does the work only once per reactor (when invoked in first project of
+     * the reactor), for all reactor projects, sharing same session and caches. Executions in other projects are
+     * skipped. Supported by some goals only: "resolve-transitive" resolves roots of all reactor projects in one pass
+     * into one sink, while goals having per-project output ("tree", "classpath", "libyear") still process reactor
+     * projects one by one: the graph of each project is collected from its own root, reusing only what is cached in
+     * the session (like artifact descriptors read by resolver).
+     */
+    @Parameter(property = "toolbox.aggregate", defaultValue = "false")
+    protected boolean aggregate;
+
+    /**
+     * Operation executed against a project.
+     */
+    @FunctionalInterface
+    protected interface ProjectOperation<T> {
+        Result<T> execute(MavenProject project) throws Exception;
+    }
+
+    /**
+     * Returns the projects to process: the current project or, in aggregator mode, all reactor projects if current
+     * project is the first one in reactor, and empty list otherwise (as they are processed with first one).
+     */
+    protected List<MavenProject> projectsToProcess() {
+        if (!aggregate) {
+            return Collections.singletonList(mavenProject);
+        }
+        List<MavenProject> projects = mavenSession.getProjects();
+        if (projects.isEmpty() || projects.get(0) != mavenProject) {
+            getOutput().suggest("Aggregator mode: skipping {}, already processed with reactor", mavenProject.getId());
+            return Collections.emptyList();
+        }
+        return projects;
+    }
+
+    /**
+     * Executes operation against current project or, in aggregator mode, against all reactor projects one by one
+     * (see {@link #projectsToProcess()}). In aggregator mode the result carries per-project results keyed by project
+     * ID, and is failure if any project operation failed.
+     */
+    protected <T> Result<?> executeForProjects(ProjectOperation<T> operation) throws Exception {
+        if (!aggregate) {
+            return operation.execute(mavenProject);
+        }
+        LinkedHashMap<String, T> results = new LinkedHashMap<>();
+        ArrayList<String> failures = new ArrayList<>();
+        for (MavenProject project : projectsToProcess()) {
+            getOutput().marker(Output.Verbosity.NORMAL).emphasize("Project {}").say(project.getId());
+            Result<T> result = operation.execute(project);
+            if (result.isSuccess()) {
+                result.getData().ifPresent(d -> results.put(project.getId(), d));
+            } else {
+                failures.add(project.getId() + ": " + result.getMessage());
+            }
+        }
+        if (!failures.isEmpty()) {
+            return Result.failure(String.join(", ", failures));
+        }
+        return Result.success(results);
+    }
+
     protected String getRepositoryVendor() {
         if (repositoryVendor != null) {
             return repositoryVendor;
@@ -59,17 +125,21 @@ public abstract class MPMojoSupport extends MojoSupport {
     }
 
     protected ResolutionRoot projectAsResolutionRoot() {
+        return projectAsResolutionRoot(mavenProject);
+    }
+
+    protected ResolutionRoot projectAsResolutionRoot(MavenProject project) {
         ResolutionRoot.Builder builder = ResolutionRoot.ofNotLoaded(new DefaultArtifact(
-                        mavenProject.getGroupId(),
-                        mavenProject.getArtifactId(),
+                        project.getGroupId(),
+                        project.getArtifactId(),
                         artifactHandlerManager
-                                .getArtifactHandler(mavenProject.getPackaging())
+                                .getArtifactHandler(project.getPackaging())
                                 .getExtension(),
-                        mavenProject.getVersion()))
-                .withDependencies(toDependencies(mavenProject.getDependencies()));
-        if (mavenProject.getDependencyManagement() != null) {
+                        project.getVersion()))
+                .withDependencies(toDependencies(project.getDependencies()));
+        if (project.getDependencyManagement() != null) {
             builder.withManagedDependencies(
-                    toDependencies(mavenProject.getDependencyManagement().getDependencies()));
+                    toDependencies(project.getDependencyManagement().getDependencies()));
         }
         return builder.build();
     }
@@ -85,7 +155,12 @@ public abstract class MPMojoSupport extends MojoSupport {
     }
 
     protected List<ResolutionRoot> projectDependenciesAsResolutionRoots(DependencyMatcher dependencyMatcher) {
-        ResolutionRoot project = projectAsResolutionRoot();
+        return projectDependenciesAsResolutionRoots(mavenProject, dependencyMatcher);
+    }
+
+    protected List<ResolutionRoot> projectDependenciesAsResolutionRoots(
+            MavenProject reactorProject, DependencyMatcher dependencyMatcher) {
+        ResolutionRoot project = projectAsResolutionRoot(reactorProject);
         return project.getDependencies().stream()
                 .filter(d -> !isReactorDependency(d))
                 .filter(dependencyMatcher)
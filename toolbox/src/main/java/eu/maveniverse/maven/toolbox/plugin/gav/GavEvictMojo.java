@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023-2024 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.maven.toolbox.plugin.gav;
+
+import eu.maveniverse.maven.toolbox.plugin.GavMojoSupport;
+import eu.maveniverse.maven.toolbox.shared.ResolutionScope;
+import eu.maveniverse.maven.toolbox.shared.Result;
+import eu.maveniverse.maven.toolbox.shared.ToolboxCommando;
+import eu.maveniverse.maven.toolbox.shared.internal.EvictingSink;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import picocli.CommandLine;
+
+/**
+ * Evicts least recently used artifacts from local repository, until it fits into size budget.
+ */
+@CommandLine.Command(
+        name = "evict",
+        description = "Evicts least recently used artifacts from local repository, until it fits into size budget")
+@Mojo(name = "gav-evict", requiresProject = false, threadSafe = true)
+public class GavEvictMojo extends GavMojoSupport {
+    /**
+     * The size budget of local repository, like "20g" or "500m".
+     */
+    @CommandLine.Parameters(index = "0", description = "The size budget of local repository, like '20g'", arity = "1")
+    @Parameter(property = "budget", required = true)
+    private String budget;
+
+    /**
+     * The comma separated GAVs to pin: they are resolved transitively, and are never evicted.
+     */
+    @CommandLine.Option(
+            names = {"--pin"},
+            defaultValue = "",
+            description = "The comma separated GAVs to pin: they are resolved transitively, and are never evicted")
+    @Parameter(property = "pin")
+    private String pin;
+
+    /**
+     * Resolution scope to resolve pinned GAVs in (default 'runtime').
+     */
+    @CommandLine.Option(
+            names = {"--scope"},
+            defaultValue = "runtime",
+            description = "Resolution scope to resolve pinned GAVs in (default 'runtime')")
+    @Parameter(property = "scope", defaultValue = "runtime", required = true)
+    private String scope;
+
+    /**
+     * Comma separated list of BOMs to apply.
+     */
+    @CommandLine.Option(
+            names = {"--boms"},
+            defaultValue = "",
+            description = "Comma separated list of BOMs to apply")
+    @Parameter(property = "boms")
+    private String boms;
+
+    @Override
+    protected Result<Long> doExecute() throws Exception {
+        ToolboxCommando toolboxCommando = getToolboxCommando();
+        return toolboxCommando.evict(
+                EvictingSink.parseSize(budget),
+                ResolutionScope.parse(scope),
+                toolboxCommando.loadGavs(slurp(pin), slurp(boms)),
+                dryRun);
+    }
+}
@@ -25,7 +25,8 @@ public class ClasspathMojo extends MPMojoSupport {
     private String scope;
 
     @Override
-    protected Result<String> doExecute() throws Exception {
-        return getToolboxCommando().classpath(ResolutionScope.parse(scope), projectAsResolutionRoot());
+    protected Result<?> doExecute() throws Exception {
+        return executeForProjects(project ->
+                getToolboxCommando().classpath(ResolutionScope.parse(scope), projectAsResolutionRoot(project)));
     }
 }
@@ -50,16 +50,16 @@ public class LibYearMojo extends MPMojoSupport {
     private boolean upToDate;
 
     @Override
-    protected Result<Float> doExecute() throws Exception {
+    protected Result<?> doExecute() throws Exception {
         ToolboxCommando toolboxCommando = getToolboxCommando();
-        return toolboxCommando.libYear(
-                "project " + mavenProject.getId(),
+        return executeForProjects(project -> toolboxCommando.libYear(
+                "project " + project.getId(),
                 ResolutionScope.parse(scope),
-                projectAsResolutionRoot(),
+                projectAsResolutionRoot(project),
                 transitive,
                 upToDate,
                 toolboxCommando.parseArtifactVersionMatcherSpec(artifactVersionMatcherSpec),
                 toolboxCommando.parseArtifactVersionSelectorSpec(artifactVersionSelectorSpec),
-                getRepositoryVendor());
+                getRepositoryVendor()));
     }
 }
@@ -8,12 +8,17 @@
 package eu.maveniverse.maven.toolbox.plugin.mp;
 
 import eu.maveniverse.maven.toolbox.plugin.MPMojoSupport;
+import eu.maveniverse.maven.toolbox.shared.DependencyMatcher;
+import eu.maveniverse.maven.toolbox.shared.ResolutionRoot;
 import eu.maveniverse.maven.toolbox.shared.ResolutionScope;
 import eu.maveniverse.maven.toolbox.shared.Result;
 import eu.maveniverse.maven.toolbox.shared.ToolboxCommando;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
 import org.eclipse.aether.artifact.Artifact;
 
 /**
@@ -59,11 +64,20 @@ public class ResolveTransitiveMojo extends MPMojoSupport {
 
     @Override
     protected Result<List<Artifact>> doExecute() throws Exception {
+        List<MavenProject> projects = projectsToProcess();
+        if (projects.isEmpty()) {
+            return Result.success(Collections.emptyList());
+        }
         ToolboxCommando toolboxCommando = getToolboxCommando();
-        ResolutionScope resolutionScope = ResolutionScope.parse(scope);
+        DependencyMatcher dependencyMatcher = toolboxCommando.parseDependencyMatcherSpec(depSpec);
+        // in aggregator mode roots of all projects are resolved in one pass into one sink
+        ArrayList<ResolutionRoot> resolutionRoots = new ArrayList<>();
+        for (MavenProject project : projects) {
+            resolutionRoots.addAll(projectDependenciesAsResolutionRoots(project, dependencyMatcher));
+        }
         return toolboxCommando.resolveTransitive(
-                resolutionScope,
-                projectDependenciesAsResolutionRoots(toolboxCommando.parseDependencyMatcherSpec(depSpec)),
+                ResolutionScope.parse(scope),
+                resolutionRoots,
                 sources,
                 javadoc,
                 signature,
@@ -13,7 +13,6 @@ import eu.maveniverse.maven.toolbox.shared.Result;
 import eu.maveniverse.maven.toolbox.shared.ToolboxCommando;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.eclipse.aether.collection.CollectResult;
 
 /**
  * Collects project and output its dependency tree.
@@ -39,12 +38,12 @@ public class TreeMojo extends MPMojoSupport {
     private boolean verboseTree;
 
     @Override
-    protected Result<CollectResult> doExecute() throws Exception {
+    protected Result<?> doExecute() throws Exception {
         ToolboxCommando toolboxCommando = getToolboxCommando();
-        return toolboxCommando.tree(
+        return executeForProjects(project -> toolboxCommando.tree(
                 ResolutionScope.parse(scope),
-                projectAsResolutionRoot(),
+                projectAsResolutionRoot(project),
                 verboseTree,
-                toolboxCommando.parseDependencyMatcherSpec(dependencyMatcher));
+                toolboxCommando.parseDependencyMatcherSpec(dependencyMatcher)));
     }
 }